@@ -21,7 +21,13 @@ intellij {
 
 dependencies {
     implementation("com.fifesoft:rsyntaxtextarea:3.3.4")
-    implementation("com.sun.codemodel:codemodel:2.6")
+    // The generator core, the IDE platform already provides its Jackson, Gson, Commons Lang and javax.annotation
+    implementation(project(":core")) {
+        exclude(group = "com.fasterxml.jackson.core")
+        exclude(group = "com.google.code.gson")
+        exclude(group = "commons-lang")
+        exclude(group = "javax.annotation")
+    }
 }
 
 tasks {
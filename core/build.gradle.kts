@@ -0,0 +1,51 @@
+plugins {
+    `java-library`
+    application
+    id("me.champeau.jmh") version "0.6.8"
+}
+
+group = "com.hgy.plugin"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+// Inference and code emission without any IDE dependency, also runnable from the command line:
+// ./gradlew :core:run --args="samples src/main/java -p com.example.dto"
+dependencies {
+    api("com.sun.codemodel:codemodel:2.6")
+    // Provided by the IDE platform inside the plugin, the plugin excludes them
+    implementation("com.fasterxml.jackson.core:jackson-core:2.13.2")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.13.2")
+    implementation("com.google.code.gson:gson:2.9.0")
+    implementation("commons-lang:commons-lang:2.6")
+    implementation("javax.annotation:javax.annotation-api:1.3.2")
+    // @ThreadSafe on Inflector, only needed at compile time
+    compileOnly("com.github.stephenc.jcip:jcip-annotations:1.0-1")
+
+    testImplementation("org.junit.jupiter:junit-jupiter:5.8.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+application {
+    mainClass.set("com.hgy.plugin.j2o.GenerateCli")
+    applicationName = "json2object"
+}
+
+// Benchmarks live in src/jmh/java, run them with ./gradlew :core:jmh
+jmh {
+    jmhVersion.set("1.36")
+    resultFormat.set("JSON")
+}
+
+tasks {
+    withType<JavaCompile> {
+        sourceCompatibility = "11"
+        targetCompatibility = "11"
+    }
+
+    test {
+        useJUnitPlatform()
+    }
+}
@@ -0,0 +1,95 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.sun.codemodel.JCodeModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分阶段测量生成过程：解析、形状推断、字段和生成器的代码模型构建，以及源码渲染。
+ *
+ * @author hgy
+ * @since 2026-10-16 15:10:52
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateObjectBenchmark {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final GenerateOptions OPTIONS = new GenerateOptions().withGenerateBuilders(true);
+
+    @Param({"8", "64"})
+    public int width;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"10", "10000"})
+    public int arrayLength;
+
+    private byte[] json;
+    private JsonShape shape;
+    private JCodeModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        json = SyntheticJson.generate(width, depth, arrayLength);
+        shape = infer();
+        model = emit();
+    }
+
+    /**
+     * 只遍历词法单元，作为推断的基线。
+     */
+    @Benchmark
+    public long parse() throws IOException {
+        long tokens = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            while (parser.nextToken() != null) {
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public JsonShape infer() throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return new ShapeReader(ArraySampling.ALL, ForkJoinPool.commonPool()).read(parser);
+        }
+    }
+
+    /**
+     * parseObject、generateFields 和 generateBuilder。
+     */
+    @Benchmark
+    public JCodeModel emit() throws Exception {
+        return new GenerateObject("com.example.dto", GenerationProgress.NONE).generateModel(shape, "Root",
+            OPTIONS);
+    }
+
+    @Benchmark
+    public GeneratedSources build() throws IOException {
+        GeneratedSources sources = new GeneratedSources();
+        model.build(sources);
+        return sources;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hgy.plugin.j2o;
+
+import com.hgy.plugin.inspired.Inflector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量属性名到类名、字段名的转换。名称数量小于 Inflector 的记忆缓存时主要测量缓存命中，
+ * 远大于缓存时主要测量规则匹配。
+ *
+ * @author hgy
+ * @since 2026-10-16 15:18:06
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamingBenchmark {
+    @Param({"100", "100000"})
+    public int distinctNames;
+
+    private final Inflector inflector = new Inflector();
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        names = new String[distinctNames];
+        for (int i = 0; i < distinctNames; i++) {
+            names[i] = SyntheticJson.propertyName(i);
+        }
+    }
+
+    private String nextName() {
+        String name = names[next];
+        next = next + 1 == names.length ? 0 : next + 1;
+        return name;
+    }
+
+    @Benchmark
+    public String singularize() {
+        return inflector.singularize(nextName());
+    }
+
+    @Benchmark
+    public String camelCase() {
+        return inflector.camelCase(nextName(), true, '-');
+    }
+
+    @Benchmark
+    public String sanitizePropertyName() {
+        return GenerateObject.sanitizePropertyName(nextName());
+    }
+
+    @Benchmark
+    public String formatFieldName() {
+        return GenerateObject.formatFieldName(nextName(), true);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * 生成基准测试使用的合成 JSON 语料，宽度、深度和数组长度可调，相同参数总是生成相同内容。
+ *
+ * @author hgy
+ * @since 2026-10-16 15:02:37
+ */
+final class SyntheticJson {
+    /**
+     * 属性名词汇，包含单复数、下划线和连字符，覆盖命名和单数化的常见路径
+     */
+    private static final String[] WORDS =
+        {"id", "name", "status", "created_at", "line-items", "price", "currency", "categories", "address",
+            "user_ids", "children", "statuses", "analyses", "wives", "is_active", "quantity"};
+
+    private SyntheticJson() {
+    }
+
+    /**
+     * @param width       每个对象的属性数
+     * @param depth       对象嵌套的层数，1 表示没有嵌套对象
+     * @param arrayLength 根对象中对象数组的长度
+     * @return UTF-8 编码的 JSON 文本
+     * @throws IOException 写入失败
+     */
+    static byte[] generate(int width, int depth, int arrayLength) throws IOException {
+        SplittableRandom random = new SplittableRandom(width * 31L + depth * 17L + arrayLength);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            writeProperties(generator, random, width, depth);
+            generator.writeArrayFieldStart("items");
+            for (int i = 0; i < arrayLength; i++) {
+                generator.writeStartObject();
+                writeProperties(generator, random, width, 1);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param index 属性序号
+     * @return 不重复的属性名
+     */
+    static String propertyName(int index) {
+        String word = WORDS[index % WORDS.length];
+        int round = index / WORDS.length;
+        return round == 0 ? word : word + "_" + round;
+    }
+
+    private static void writeProperties(JsonGenerator generator, SplittableRandom random, int width, int depth)
+        throws IOException {
+        for (int i = 0; i < width; i++) {
+            generator.writeFieldName(propertyName(i));
+            switch (i % 5) {
+                case 0:
+                    generator.writeString(Long.toHexString(random.nextLong()));
+                    break;
+                case 1:
+                    generator.writeNumber(random.nextInt(1_000_000));
+                    break;
+                case 2:
+                    generator.writeNumber(random.nextDouble() * 1000);
+                    break;
+                case 3:
+                    generator.writeBoolean(random.nextBoolean());
+                    break;
+                default:
+                    if (depth > 1) {
+                        generator.writeStartObject();
+                        writeProperties(generator, random, width, depth - 1);
+                        generator.writeEndObject();
+                    } else {
+                        generator.writeStartArray();
+                        generator.writeNumber(random.nextInt());
+                        generator.writeNumber(random.nextInt());
+                        generator.writeEndArray();
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -25,9 +25,15 @@ package com.hgy.plugin.inspired;
 
 import net.jcip.annotations.ThreadSafe;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -47,16 +53,63 @@ public class Inflector {
         return INSTANCE;
     }
 
+    /**
+     * 正则表达式中的元字符，不属于字面后缀
+     */
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
     protected class Rule {
 
         protected final String expression;
         protected final Pattern expressionPattern;
         protected final String replacement;
+        /**
+         * 表达式在 $ 之前的字面后缀（ASCII 小写），匹配的单词必须以它结尾；无法提取时为 null
+         */
+        protected final String suffix;
+        /**
+         * 表达式是否只由字面后缀和 $ 组成，且替换中没有反向引用，此时可以不经过正则直接替换后缀
+         */
+        protected final boolean literal;
 
         protected Rule(String expression, String replacement) {
             this.expression = expression;
             this.replacement = replacement != null ? replacement : "";
             this.expressionPattern = Pattern.compile(this.expression, Pattern.CASE_INSENSITIVE);
+
+            int end = expression.length() - 1;
+            if (end < 0 || expression.charAt(end) != '$' || (end > 0 && expression.charAt(end - 1) == '\\')
+                || hasTopLevelAlternation(expression)) {
+                this.suffix = null;
+                this.literal = false;
+                return;
+            }
+            // 从 $ 向前收集字面字符，只由字面字符组成的分组也算在内
+            StringBuilder reversed = new StringBuilder();
+            boolean grouped = false;
+            int i = end - 1;
+            while (i >= 0) {
+                char c = expression.charAt(i);
+                if (c == ')') {
+                    int open = expression.lastIndexOf('(', i);
+                    if (open < 0 || (open > 0 && expression.charAt(open - 1) == '\\')
+                        || !isLiteral(expression, open + 1, i))
+                        break;
+                    for (int j = i - 1; j > open; j--) {
+                        reversed.append(fold(expression.charAt(j)));
+                    }
+                    grouped = true;
+                    i = open - 1;
+                } else if (METACHARACTERS.indexOf(c) < 0 && (i == 0 || expression.charAt(i - 1) != '\\')) {
+                    reversed.append(fold(c));
+                    i--;
+                } else {
+                    break;
+                }
+            }
+            this.suffix = reversed.reverse().toString();
+            this.literal = i < 0 && !grouped && this.replacement.indexOf('$') < 0
+                && this.replacement.indexOf('\\') < 0;
         }
 
         /**
@@ -72,6 +125,16 @@ public class Inflector {
             return matcher.replaceAll(this.replacement);
         }
 
+        /**
+         * 对已知以 {@link #suffix} 结尾的输入直接替换后缀，仅适用于 {@link #literal} 规则
+         *
+         * @param input 输入字符串
+         * @return 修改后的字符串
+         */
+        protected String applyLiteral(String input) {
+            return input.substring(0, input.length() - suffix.length()) + replacement;
+        }
+
         @Override
         public int hashCode() {
             return expression.hashCode();
@@ -95,6 +158,135 @@ public class Inflector {
         }
     }
 
+    /**
+     * @param expression 正则表达式
+     * @return 表达式是否在所有分组之外包含 |，这样的表达式不一定以同一个后缀结尾
+     */
+    private static boolean hasTopLevelAlternation(String expression) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                if (c == ']')
+                    inClass = false;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 表达式在 [from, to) 之间是否只有字面字符
+     */
+    private static boolean isLiteral(String expression, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (METACHARACTERS.indexOf(expression.charAt(i)) >= 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 与 {@link Pattern#CASE_INSENSITIVE} 一致，只折叠 ASCII 字母的大小写。
+     */
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char)(c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * 按单词后缀索引的规则集。规则的字面后缀反向插入字典树，查找时从单词末尾向前走一遍，
+     * 沿途经过的节点上的规则和没有字面后缀的规则是仅有的候选，再按原有的优先级依次验证。
+     * 查找的代价与单词长度成正比，而不是与规则数量成正比。
+     */
+    private static final class RuleTrie {
+        private final Rule[] rules;
+        private final Node root = new Node();
+        /**
+         * 没有字面后缀，对所有单词都是候选的规则
+         */
+        private final BitSet unindexed = new BitSet();
+
+        private static final class Node {
+            private char[] keys = new char[0];
+            private Node[] children = new Node[0];
+            /**
+             * 字面后缀恰好到此节点结束的规则
+             */
+            private final BitSet rules = new BitSet();
+
+            Node child(char key) {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] == key)
+                        return children[i];
+                }
+                return null;
+            }
+
+            Node addChild(char key) {
+                Node child = child(key);
+                if (child == null) {
+                    child = new Node();
+                    keys = Arrays.copyOf(keys, keys.length + 1);
+                    children = Arrays.copyOf(children, children.length + 1);
+                    keys[keys.length - 1] = key;
+                    children[children.length - 1] = child;
+                }
+                return child;
+            }
+        }
+
+        /**
+         * @param rules 按优先级从高到低排列的规则
+         */
+        RuleTrie(List<Rule> rules) {
+            this.rules = rules.toArray(new Rule[0]);
+            for (int i = 0; i < this.rules.length; i++) {
+                String suffix = this.rules[i].suffix;
+                if (suffix == null) {
+                    unindexed.set(i);
+                    continue;
+                }
+                Node node = root;
+                for (int j = suffix.length() - 1; j >= 0; j--) {
+                    node = node.addChild(suffix.charAt(j));
+                }
+                node.rules.set(i);
+            }
+        }
+
+        /**
+         * 应用第一条匹配的规则。
+         *
+         * @param word 单词
+         * @return 修改后的单词，没有规则匹配时为单词本身
+         */
+        String apply(String word) {
+            BitSet candidates = (BitSet)unindexed.clone();
+            Node node = root;
+            for (int i = word.length() - 1; node != null; i--) {
+                candidates.or(node.rules);
+                node = i >= 0 ? node.child(fold(word.charAt(i))) : null;
+            }
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Rule rule = rules[i];
+                String result = rule.literal ? rule.applyLiteral(word) : rule.apply(word);
+                if (result != null)
+                    return result;
+            }
+            return word;
+        }
+    }
+
     private final LinkedList<Rule> plurals = new LinkedList<>();
     private final LinkedList<Rule> singulars = new LinkedList<>();
 
@@ -103,6 +295,30 @@ public class Inflector {
      */
     private final Set<String> uncountables = new HashSet<>();
 
+    /**
+     * 单数和复数结果的记忆缓存容量上限，超过后清空重建
+     */
+    private static final int CACHE_CAPACITY = 4096;
+
+    /**
+     * 编译后的单数和复数规则及其结果的记忆缓存。规则变化时整体替换为新实例，这样在替换前开始计算的旧结果只会写入被丢弃的缓存。
+     */
+    private static final class MemoCache {
+        final RuleTrie singularRules;
+        final RuleTrie pluralRules;
+        final Map<String, String> singulars = new ConcurrentHashMap<>();
+        final Map<String, String> plurals = new ConcurrentHashMap<>();
+
+        MemoCache(List<Rule> singularRules, List<Rule> pluralRules) {
+            this.singularRules = new RuleTrie(singularRules);
+            this.pluralRules = new RuleTrie(pluralRules);
+        }
+    }
+
+    private volatile MemoCache cache = new MemoCache(singulars, plurals);
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
     public Inflector() {
         initialize();
     }
@@ -111,6 +327,7 @@ public class Inflector {
         this.plurals.addAll(original.plurals);
         this.singulars.addAll(original.singulars);
         this.uncountables.addAll(original.uncountables);
+        invalidateCache();
     }
 
     @Override
@@ -147,14 +364,8 @@ public class Inflector {
         String wordStr = word.toString().trim();
         if (wordStr.length() == 0)
             return wordStr;
-        if (isUncountable(wordStr))
-            return wordStr;
-        for (Rule rule : this.plurals) {
-            String result = rule.apply(wordStr);
-            if (result != null)
-                return result;
-        }
-        return wordStr;
+        MemoCache memo = cache;
+        return cached(memo.plurals, wordStr, memo.pluralRules);
     }
 
     public String pluralize(Object word, int count) {
@@ -195,14 +406,51 @@ public class Inflector {
         String wordStr = word.toString().trim();
         if (wordStr.length() == 0)
             return wordStr;
-        if (isUncountable(wordStr))
-            return wordStr;
-        for (Rule rule : this.singulars) {
-            String result = rule.apply(wordStr);
-            if (result != null)
-                return result;
+        MemoCache memo = cache;
+        return cached(memo.singulars, wordStr, memo.singularRules);
+    }
+
+    /**
+     * 从记忆缓存中取出单词的变形结果，未命中时计算并放入缓存。
+     *
+     * @param memo    单数或复数的记忆缓存
+     * @param wordStr 已去除首尾空白的非空单词
+     * @param rules   未命中时使用的变形规则
+     * @return 变形结果
+     */
+    private String cached(Map<String, String> memo, String wordStr, RuleTrie rules) {
+        String result = memo.get(wordStr);
+        if (result != null) {
+            cacheHits.increment();
+            return result;
         }
-        return wordStr;
+        cacheMisses.increment();
+        result = isUncountable(wordStr) ? wordStr : rules.apply(wordStr);
+        if (memo.size() >= CACHE_CAPACITY)
+            memo.clear();
+        memo.put(wordStr, result);
+        return result;
+    }
+
+    /**
+     * @return {@link #singularize(Object)} 和 {@link #pluralize(Object)} 命中记忆缓存的次数
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return {@link #singularize(Object)} 和 {@link #pluralize(Object)} 未命中记忆缓存的次数
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * 丢弃所有记忆的单数和复数结果。规则通过本类的方法修改时会自动调用。
+     */
+    public void invalidateCache() {
+        cache = new MemoCache(singulars, plurals);
     }
 
     /**
@@ -452,7 +700,7 @@ public class Inflector {
     }
 
     /**
-     * 获取未被 Inflector 处理的单词集。得到的映射图可以直接修改。
+     * 获取未被 Inflector 处理的单词集。得到的映射图可以直接修改，修改后应调用 {@link #invalidateCache()}。
      *
      * @return 不可数词集
      */
@@ -463,11 +711,13 @@ public class Inflector {
     public void addPluralize(String rule, String replacement) {
         final Rule pluralizeRule = new Rule(rule, replacement);
         this.plurals.addFirst(pluralizeRule);
+        invalidateCache();
     }
 
     public void addSingularize(String rule, String replacement) {
         final Rule singularizeRule = new Rule(rule, replacement);
         this.singulars.addFirst(singularizeRule);
+        invalidateCache();
     }
 
     public void addIrregular(String singular, String plural) {
@@ -490,8 +740,14 @@ public class Inflector {
             if (word != null)
                 uncountables.add(word.trim().toLowerCase());
         }
+        invalidateCache();
     }
 
+    /**
+     * {@link #replaceAllWithUppercase(String, String, int)} 编译过的正则
+     */
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
     /**
      * 实用方法，将特定反向引用给出的所有出现替换为其大写形式，并移除所有其他反向引用。
      * <p>
@@ -508,7 +764,12 @@ public class Inflector {
      * @return 输入字符串，并将相应字符转换为大写字母
      */
     protected static String replaceAllWithUppercase(String input, String regex, int groupNumberToUppercase) {
-        Pattern underscoreAndDotPattern = Pattern.compile(regex);
+        Pattern underscoreAndDotPattern = PATTERNS.get(regex);
+        if (underscoreAndDotPattern == null) {
+            if (PATTERNS.size() >= CACHE_CAPACITY)
+                PATTERNS.clear();
+            underscoreAndDotPattern = PATTERNS.computeIfAbsent(regex, Pattern::compile);
+        }
         Matcher matcher = underscoreAndDotPattern.matcher(input);
         StringBuffer sb = new StringBuffer();
         while (matcher.find()) {
@@ -525,6 +786,7 @@ public class Inflector {
         this.uncountables.clear();
         this.plurals.clear();
         this.singulars.clear();
+        invalidateCache();
     }
 
     protected void initialize() {
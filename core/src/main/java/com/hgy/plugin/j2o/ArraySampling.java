@@ -0,0 +1,164 @@
+package com.hgy.plugin.j2o;
+
+import java.util.Locale;
+
+/**
+ * 推断数组元素形状时的采样策略。
+ * <p>
+ * 对于很大的数组，只合并有限数量的元素，使推断成本保持稳定；未被采样的元素只做 token 级的跳过。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 10:02:37
+ */
+public final class ArraySampling {
+
+    /**
+     * 采样策略
+     */
+    public enum Strategy {
+        /**
+         * 合并所有元素
+         */
+        ALL("All elements"),
+        /**
+         * 只合并前 N 个元素
+         */
+        FIRST_N("First N"),
+        /**
+         * 等距采样，采满 N 个后步长加倍，使样本覆盖整个数组
+         */
+        STRIDE("Stride"),
+        /**
+         * 蓄水池采样，从整个数组中均匀随机地选出 N 个元素
+         */
+        RESERVOIR("Reservoir");
+
+        private final String label;
+
+        Strategy(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * 合并所有元素
+     */
+    public static final ArraySampling ALL = new ArraySampling(Strategy.ALL, Integer.MAX_VALUE);
+
+    private final Strategy strategy;
+    /**
+     * 样本数量上限
+     */
+    private final int limit;
+
+    /**
+     * 构造器
+     *
+     * @param strategy 采样策略
+     * @param limit    样本数量上限，至少为 1
+     */
+    public ArraySampling(Strategy strategy, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit");
+        }
+        this.strategy = strategy;
+        this.limit = limit;
+    }
+
+    /**
+     * 按命令行和构建脚本中使用的名称创建采样策略。
+     *
+     * @param strategy all、first、stride 或 reservoir，不区分大小写
+     * @param limit    样本数量上限，all 时忽略
+     * @return 采样策略
+     * @throws IllegalArgumentException 名称未知或数量小于 1
+     */
+    public static ArraySampling parse(String strategy, int limit) {
+        switch (strategy.toLowerCase(Locale.ROOT)) {
+            case "all":
+                return ALL;
+            case "first":
+                return new ArraySampling(Strategy.FIRST_N, limit);
+            case "stride":
+                return new ArraySampling(Strategy.STRIDE, limit);
+            case "reservoir":
+                return new ArraySampling(Strategy.RESERVOIR, limit);
+            default:
+                throw new IllegalArgumentException("unknown sampling strategy: " + strategy);
+        }
+    }
+
+    /**
+     * @return 采样策略
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return 样本数量上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 为一个数组创建新的采样器，每个数组实例都有独立的采样状态。
+     *
+     * @return 采样器
+     */
+    Sampler newSampler() {
+        switch (strategy) {
+            case FIRST_N:
+                return index -> index < limit;
+            case STRIDE:
+                return new StrideSampler(limit);
+            default:
+                return index -> true;
+        }
+    }
+
+    /**
+     * 顺序决定某个元素是否参与合并的采样器。蓄水池采样需要回看，由 {@link ShapeReader} 单独处理。
+     */
+    interface Sampler {
+        /**
+         * @param index 元素下标，按顺序递增
+         * @return 如果该元素应合并到元素形状中，则为 true
+         */
+        boolean accept(long index);
+    }
+
+    /**
+     * 步长加倍的等距采样器：合并的元素数量随数组长度对数增长。
+     */
+    private static class StrideSampler implements Sampler {
+        private final int limit;
+        private long stride = 1;
+        private int taken;
+
+        StrideSampler(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean accept(long index) {
+            if (index % stride != 0) {
+                return false;
+            }
+
+            // 每采满一轮，步长加倍，下一轮只需采一半
+            if (++taken >= limit) {
+                stride *= 2;
+                taken = limit / 2;
+            }
+            return true;
+        }
+    }
+}
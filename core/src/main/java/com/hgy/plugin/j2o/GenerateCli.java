@@ -0,0 +1,290 @@
+package com.hgy.plugin.j2o;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命令行入口：并行地从一个目录中的所有 JSON 样本生成类，写入目标源目录。
+ * <p>
+ * 每个样本生成到以样本文件名命名的子包中，根类名与插件中从文件生成时的默认类名相同；
+ * 内容没有变化的文件不会被重写，因此可以在 CI 中反复运行。指定 {@code --delete-stale} 时，
+ * 还会删除样本的包目录中本次没有生成的类。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 16:42:27
+ */
+public final class GenerateCli {
+    private static final String USAGE = String.join(System.lineSeparator(),
+        "Usage: json2object [options] <samples-dir> <output-dir>",
+        "",
+        "Generates classes from every .json, .jsonl and .ndjson file under <samples-dir>.",
+        "Each sample is generated into its own package <package>.<sample name>.",
+        "",
+        "Options:",
+        "  -p, --package <name>       base package of the generated classes",
+        "  -b, --builders             generate builders instead of setters",
+        "      --no-m-prefix          do not prefix field names with 'm'",
+        "  -t, --target <library>     annotate for gson or jackson; jackson also generates streaming",
+        "                             serializers (default: gson)",
+        "      --type-adapters        generate reflection-free Gson TypeAdapters and a TypeAdapterFactory",
+        "      --primitive-arrays     generate long[], double[] and boolean[] for arrays without nulls",
+        "      --narrow-numbers       use short, int or float when the observed values fit",
+        "      --number-margin <x>    factor the observed values are scaled by before narrowing (default: 2)",
+        "      --enums                generate enums for string fields with few distinct, repeated values",
+        "      --immutable            generate immutable value classes with equals, hashCode and toString",
+        "  -s, --sampling <strategy>  array sampling: all, first, stride or reservoir (default: all)",
+        "  -n, --sample-size <n>      number of array elements to sample (default: 1000)",
+        "  -j, --threads <n>          number of samples generated in parallel (default: available processors)",
+        "      --delete-stale         delete .java files in each sample's package directory that were not",
+        "                             generated by this run (the directory must hold only generated classes)",
+        "  -v, --verbose              print phase timings for every sample",
+        "  -h, --help                 print this help");
+
+    private String basePackage = "";
+    private boolean generateBuilders;
+    private boolean useMPrefix = true;
+    private boolean generateTypeAdapters;
+    private boolean primitiveArrays;
+    private boolean narrowNumbers;
+    private double numberMargin = 2;
+    private boolean stringEnums;
+    private boolean immutable;
+    private GenerateOptions.Target target = GenerateOptions.Target.GSON;
+    private String sampling = "all";
+    private int sampleSize = 1000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean deleteStale;
+    private boolean verbose;
+    private Path samplesDir;
+    private Path outputDir;
+
+    public static void main(String[] args) {
+        GenerateCli cli = new GenerateCli();
+        try {
+            if (!cli.parse(args)) {
+                System.out.println(USAGE);
+                return;
+            }
+            System.exit(cli.run());
+        } catch (IllegalArgumentException e) {
+            System.err.println("json2object: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("json2object: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 解析命令行参数。
+     *
+     * @param args 命令行参数
+     * @return 如果应当执行生成，则为 true；请求帮助时为 false
+     * @throws IllegalArgumentException 参数无效
+     */
+    private boolean parse(String[] args) {
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h":
+                case "--help":
+                    return false;
+                case "-p":
+                case "--package":
+                    basePackage = value(args, ++i, arg);
+                    if (!basePackage.isEmpty() && !SourceVersion.isName(basePackage)) {
+                        throw new IllegalArgumentException("invalid package name: " + basePackage);
+                    }
+                    break;
+                case "-b":
+                case "--builders":
+                    generateBuilders = true;
+                    break;
+                case "--no-m-prefix":
+                    useMPrefix = false;
+                    break;
+                case "-t":
+                case "--target":
+                    target = GenerateOptions.Target.parse(value(args, ++i, arg));
+                    break;
+                case "--type-adapters":
+                    generateTypeAdapters = true;
+                    break;
+                case "--primitive-arrays":
+                    primitiveArrays = true;
+                    break;
+                case "--narrow-numbers":
+                    narrowNumbers = true;
+                    break;
+                case "--number-margin":
+                    numberMargin = margin(value(args, ++i, arg), arg);
+                    break;
+                case "--enums":
+                    stringEnums = true;
+                    break;
+                case "--immutable":
+                    immutable = true;
+                    break;
+                case "-s":
+                case "--sampling":
+                    sampling = value(args, ++i, arg);
+                    break;
+                case "-n":
+                case "--sample-size":
+                    sampleSize = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "-j":
+                case "--threads":
+                    threads = positiveInt(value(args, ++i, arg), arg);
+                    break;
+                case "--delete-stale":
+                    deleteStale = true;
+                    break;
+                case "-v":
+                case "--verbose":
+                    verbose = true;
+                    break;
+                default:
+                    if (arg.startsWith("-")) {
+                        throw new IllegalArgumentException("unknown option: " + arg);
+                    }
+                    positional.add(arg);
+            }
+        }
+
+        if (positional.size() != 2) {
+            throw new IllegalArgumentException("expected <samples-dir> and <output-dir>");
+        }
+        samplesDir = Paths.get(positional.get(0));
+        outputDir = Paths.get(positional.get(1));
+        if (!Files.isDirectory(samplesDir)) {
+            throw new IllegalArgumentException("not a directory: " + samplesDir);
+        }
+        ArraySampling.parse(sampling, sampleSize);
+        return true;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value for " + option);
+        }
+        return args[index];
+    }
+
+    private static int positiveInt(String value, String option) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a positive integer: " + value);
+    }
+
+    private static double margin(String value, String option) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number >= 1 && !Double.isInfinite(number)) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a number of at least 1: " + value);
+    }
+
+    /**
+     * 并行生成所有样本，按样本顺序输出结果。
+     *
+     * @return 进程退出码，有样本生成失败时为 1
+     * @throws IOException 读取样本目录失败
+     */
+    private int run() throws IOException {
+        List<JsonSample> samples = JsonSample.findAll(samplesDir, basePackage);
+        if (samples.isEmpty()) {
+            System.err.println("json2object: no .json, .jsonl or .ndjson files in " + samplesDir);
+            return 1;
+        }
+
+        GenerateOptions options = new GenerateOptions()
+            .withGenerateBuilders(generateBuilders)
+            .withUseMPrefix(useMPrefix)
+            .withTarget(target)
+            .withGenerateTypeAdapters(generateTypeAdapters)
+            .withPrimitiveArrays(primitiveArrays)
+            .withNarrowNumbers(narrowNumbers)
+            .withNumberMargin(numberMargin)
+            .withStringEnums(stringEnums)
+            .withImmutable(immutable)
+            .withArraySampling(ArraySampling.parse(sampling, sampleSize));
+
+        // 每个样本使用独立的生成器，样本之间不共享可变状态
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, samples.size()));
+        List<Future<String>> results = new ArrayList<>();
+        for (JsonSample sample : samples) {
+            results.add(executor.submit(() -> generate(sample, options)));
+        }
+        executor.shutdown();
+
+        int failed = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            Path file = samplesDir.relativize(samples.get(i).getFile());
+            try {
+                System.out.println(file + ": " + results.get(i).get());
+            } catch (ExecutionException e) {
+                failed++;
+                System.err.println(file + ": " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                return 1;
+            }
+        }
+
+        System.out.println(samples.size() - failed + " of " + samples.size() + " samples generated in " +
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return failed == 0 ? 0 : 1;
+    }
+
+    /**
+     * 生成并写入一个样本。
+     *
+     * @param sample  样本
+     * @param options 生成选项
+     * @return 写入结果的摘要
+     * @throws Exception 读取、解析、生成或写入失败
+     */
+    private String generate(JsonSample sample, GenerateOptions options) throws Exception {
+        GenerateObject generateObject = new GenerateObject(sample.getPackageName(), GenerationProgress.NONE);
+        GeneratedSources sources = sample.generate(generateObject, options);
+
+        GenerationMetrics metrics = generateObject.getMetrics();
+        WriteReport report;
+        GenerationMetrics.Scope write = metrics.begin(GenerationMetrics.Phase.WRITE);
+        try {
+            report = sources.writeTo(outputDir);
+            if (deleteStale) {
+                // 输出目录可能含有手写的类，只在明确要求时删除
+                sources.deleteStale(sample.packageDirectory(outputDir), outputDir, report);
+            }
+        } finally {
+            write.close();
+        }
+        String summary = sample.getPackageName() + "." + sample.getClassName() + ", " + report.summary();
+        return verbose ? summary + " (" + metrics + ")" : summary;
+    }
+}
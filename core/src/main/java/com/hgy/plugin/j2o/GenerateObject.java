@@ -0,0 +1,1118 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import com.hgy.plugin.inspired.Inflector;
+import com.sun.codemodel.*;
+import org.apache.commons.lang.StringUtils;
+
+import javax.annotation.Generated;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 包含从给定的 JSON 文本生成 Java POJO 类的代码。
+ *
+ * @author hgy
+ * @since 2023-12-24 18:37:05
+ */
+public class GenerateObject {
+    /**
+     * 始终注释暴露
+     */
+    private static final boolean ALWAYS_ANNOTATE_EXPOSE = false;
+    /**
+     * JSON 解析器工厂，线程安全，可共享
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    /**
+     * 包名
+     */
+    private final String packageName;
+    /**
+     * 进度条
+     */
+    private final GenerationProgress progressBar;
+    /**
+     * 各阶段的耗时、分配和计数，同时在进度条上显示阶段
+     */
+    private final GenerationMetrics metrics;
+
+    /**
+     * 类名映射类
+     */
+    private final Map<String, JDefinedClass> classMap = new HashMap<>();
+    /**
+     * 对象形状的规范编号，结构相同的形状共享一个类
+     */
+    private ShapeKeys shapeKeys;
+    /**
+     * 规范编号映射类
+     */
+    private final Map<Integer, JDefinedClass> keyClasses = new HashMap<>();
+    /**
+     * 每个对象形状对应的类
+     */
+    private final Map<JsonShape, JDefinedClass> shapeClasses = new IdentityHashMap<>();
+    /**
+     * 枚举值集合的规范键映射枚举，取值相同的字符串字段共享一个枚举
+     */
+    private final Map<String, JDefinedClass> enumClasses = new HashMap<>();
+    /**
+     * 每个生成为枚举的字符串形状对应的枚举
+     */
+    private final Map<JsonShape, JDefinedClass> shapeEnums = new IdentityHashMap<>();
+    /**
+     * 已使用的枚举名
+     */
+    private final Set<String> enumNames = new HashSet<>();
+    private JType deferredClass;
+    private JType deferredList;
+    /**
+     * 本次生成的选项
+     */
+    private GenerateOptions options;
+    /**
+     * 字段比较器
+     */
+    private FieldComparator fieldComparator;
+    /**
+     * 本次生成中每个属性名格式化后的名称
+     */
+    private NameTable names;
+    /**
+     * 类映射字段列表
+     */
+    private final Map<JDefinedClass, Set<FieldInfo>> fieldMap = new HashMap<>();
+
+    /**
+     * 构造器
+     *
+     * @param packageName 包名
+     * @param progressBar 进度条
+     */
+    public GenerateObject(String packageName, GenerationProgress progressBar) {
+        this.packageName = packageName;
+        this.progressBar = progressBar;
+        this.metrics = new GenerationMetrics(progressBar);
+    }
+
+    /**
+     * @return 本次生成各阶段的耗时、分配和计数
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Generates POJOs from a source JSON text.
+     *
+     * @param rootName the name of the root class to generate.
+     * @param json     the source JSON text.
+     * @param options  the generation options.
+     * @return the rendered source files.
+     * @throws Exception if the JSON cannot be parsed or the classes cannot be generated.
+     */
+    public GeneratedSources generateFromJson(String rootName, String json, GenerateOptions options) throws Exception {
+        return generate(rootName, options, reader -> {
+            try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+                return reader.read(parser);
+            }
+        });
+    }
+
+    /**
+     * Generates POJOs from a JSON file without loading it into a String.
+     *
+     * @param rootName the name of the root class to generate.
+     * @param file     the JSON file.
+     * @param options  the generation options.
+     * @return the rendered source files.
+     * @throws Exception if the file cannot be read or the classes cannot be generated.
+     */
+    public GeneratedSources generateFromJsonFile(String rootName, Path file, GenerateOptions options) throws Exception {
+        return generateFromJsonStream(rootName, file.getFileName().toString(), Files.size(file),
+            () -> new MappedFileInputStream(file), false, options);
+    }
+
+    /**
+     * Generates POJOs from a JSON Lines file, merging every record into the root class.
+     *
+     * @param rootName the name of the root class to generate.
+     * @param file     the JSON Lines file, one JSON value per line.
+     * @param options  the generation options.
+     * @return the rendered source files.
+     * @throws Exception if the file cannot be read or the classes cannot be generated.
+     */
+    public GeneratedSources generateFromJsonLines(String rootName, Path file, GenerateOptions options) throws Exception {
+        return generateFromJsonStream(rootName, file.getFileName().toString(), Files.size(file),
+            () -> new MappedFileInputStream(file), true, options);
+    }
+
+    /**
+     * 从任意来源的 JSON 或 JSON Lines 流生成类，用于不在本地文件系统中的文件。
+     *
+     * @param rootName  要生成的根类的名称。
+     * @param name      显示在进度中的来源名称。
+     * @param length    流的总字节数，用于报告进度。
+     * @param source    打开输入流，生成过程中只调用一次。
+     * @param jsonLines 如果流中的每一行是一个记录，则为 true。
+     * @param options   生成选项。
+     * @return 渲染出的源文件。
+     * @throws Exception 读取、解析或生成失败。
+     */
+    public GeneratedSources generateFromJsonStream(String rootName, String name, long length, InputSource source,
+        boolean jsonLines, GenerateOptions options) throws Exception {
+        return generate(rootName, options, reader -> {
+            try (InputStream in = source.open(); JsonParser parser = JSON_FACTORY.createParser(in)) {
+                ShapeReader fileReader = readingFile(reader, name, length);
+                return jsonLines ? fileReader.readSequence(parser) : fileReader.read(parser);
+            }
+        });
+    }
+
+    /**
+     * 按已读取的字节数报告读取文件的进度。
+     *
+     * @param reader 形状读取器
+     * @param name   正在读取的文件名
+     * @param length 文件的字节数
+     * @return 形状读取器
+     */
+    private ShapeReader readingFile(ShapeReader reader, String name, long length) {
+        long total = Math.max(1, length);
+        progressBar.setText("Reading " + name);
+        return reader.onProgress(bytesRead -> metrics.progress((double)bytesRead / total));
+    }
+
+    /**
+     * 推断形状并生成所有类。
+     *
+     * @param rootName    要生成的根类的名称。
+     * @param options     生成选项。
+     * @param shapeSource 根形状的来源。
+     * @return 渲染出的源文件。
+     * @throws Exception 读取、解析或生成失败；被取消时为进度抛出的非受检异常。
+     */
+    private GeneratedSources generate(String rootName, GenerateOptions options, ShapeSource shapeSource)
+        throws Exception {
+        // Infer the shape directly from the token stream, large arrays are inferred in parallel
+        JsonShape rootShape;
+        GenerationMetrics.Scope infer = metrics.begin(GenerationMetrics.Phase.INFER);
+        try {
+            ShapeReader reader = new ShapeReader(options.getArraySampling(), ForkJoinPool.commonPool())
+                .onCheckCanceled(progressBar::checkCanceled);
+            rootShape = shapeSource.infer(reader);
+            metrics.setValues(reader.getValueCount());
+        } finally {
+            infer.close();
+        }
+
+        // Recursively generate
+        JCodeModel jCodeModel;
+        GenerationMetrics.Scope emit = metrics.begin(GenerationMetrics.Phase.EMIT);
+        try {
+            jCodeModel = generateModel(rootShape, rootName, options);
+        } finally {
+            emit.close();
+        }
+
+        // Render in memory, the caller only writes the files whose content changed
+        GeneratedSources sources = new GeneratedSources(progressBar::checkCanceled);
+        GenerationMetrics.Scope render = metrics.begin(GenerationMetrics.Phase.RENDER);
+        try {
+            jCodeModel.build(sources);
+            metrics.setFiles(sources.getFiles().size());
+        } finally {
+            render.close();
+        }
+        return sources;
+    }
+
+    /**
+     * 在新的代码模型中创建推断出的形状对应的所有类。每个 {@link GenerateObject} 只应调用一次。
+     *
+     * @param rootShape 根 JSON 值的形状。
+     * @param rootName  要生成的根类的名称。
+     * @param options   生成选项。
+     * @return 包含所有生成类的代码模型。
+     * @throws Exception 异常
+     */
+    public JCodeModel generateModel(JsonShape rootShape, String rootName, GenerateOptions options) throws Exception {
+        this.options = options;
+        shapeKeys = new ShapeKeys(options);
+        fieldComparator = new FieldComparator();
+        names = new NameTable(options.isUseMPrefix());
+
+        // Create code model and package
+        JCodeModel jCodeModel = new JCodeModel();
+        JPackage jPackage = jCodeModel._package(packageName);
+
+        // Create deferrable types
+        deferredClass = jCodeModel.ref(Deferred.class);
+        deferredList = jCodeModel.ref(List.class).narrow(Deferred.class);
+
+        // Recursively generate
+        generate(rootShape, names.className(rootName), jPackage, options);
+
+        int fieldCount = 0;
+        for (Set<FieldInfo> fields : fieldMap.values()) {
+            fieldCount += fields.size();
+        }
+        // 生成的枚举也是独立的类型，与类一起计数
+        metrics.setClasses(classMap.size() + enumClasses.size());
+        metrics.setFields(fieldCount);
+        return jCodeModel;
+    }
+
+    /**
+     * 生成给定类的所有子对象和字段。
+     *
+     * @param rootShape 根 JSON 值的形状。
+     * @param rootName  要生成的根类的名称。
+     * @param jPackage  生成类的代码模型包。
+     * @param options   生成选项。
+     * @throws Exception 异常
+     */
+    private void generate(JsonShape rootShape, String rootName, JPackage jPackage, GenerateOptions options)
+        throws Exception {
+        // 根值为数组时，使用其元素形状作为根类
+        JsonShape classShape = rootShape;
+        while (classShape.kind() == JsonShape.ARRAY && classShape.getElement() != null) {
+            classShape = classShape.getElement();
+        }
+
+        // 首先创建所有引用子类型并收集字段数据
+        parseObject(classShape, rootName, jPackage);
+
+        // 可选择生成注册所有适配器的工厂；Jackson 总是生成流式的序列化器
+        boolean generateBuilders = options.isGenerateBuilders();
+        boolean immutable = options.isImmutable();
+        boolean jackson = options.getTarget() == GenerateOptions.Target.JACKSON;
+        GsonTypeAdapters typeAdapters = !jackson && options.isGenerateTypeAdapters()
+            ? new GsonTypeAdapters(jPackage, uniqueClassName(rootName + "TypeAdapterFactory"), immutable) : null;
+        JacksonSerializers jacksonSerializers = jackson ? new JacksonSerializers(jPackage.owner(), immutable) : null;
+        ValueClasses valueClasses = immutable ? new ValueClasses(jPackage.owner()) : null;
+
+        // 现在创建实际字段
+        int idx = 1;
+        for (JDefinedClass clazz : classMap.values()) {
+            progressBar.checkCanceled();
+            progressBar.setText2(clazz.name());
+
+            // 生成字段
+            List<GeneratedField> fields =
+                generateFields(clazz, fieldMap.get(clazz), jPackage.owner(), options, valueClasses);
+
+            // 不可变的类通过构造器创建，并生成 equals、hashCode 和 toString
+            if (valueClasses != null) {
+                valueClasses.add(clazz, fields);
+            }
+
+            // 可选择生成内部生成器类
+            if (generateBuilders) {
+                generateBuilder(clazz, fields);
+            }
+
+            // 可选择生成内部 TypeAdapter 类
+            if (typeAdapters != null) {
+                typeAdapters.add(clazz, fields);
+            }
+            if (jacksonSerializers != null) {
+                jacksonSerializers.add(clazz, fields);
+            }
+
+            // 更新进度
+            metrics.progress((double)idx / (double)classMap.size());
+            idx++;
+        }
+        if (typeAdapters != null) {
+            typeAdapters.createFactory();
+        }
+    }
+
+    /**
+     * 生成给定类的所有子对象。结构相同的对象形状共享同一个类；类名已被结构不同的形状占用时，
+     * 在类名后追加序号。
+     *
+     * @param classShape JSON 对象的形状。
+     * @param className  要为该形状创建的类的名称。
+     * @param jPackage  生成类的代码模型包。
+     * @throws Exception 异常
+     */
+    private void parseObject(JsonShape classShape, String className, JPackage jPackage) throws Exception {
+        // 相同结构的类已经生成过，其子对象也已生成
+        int id = shapeKeys.idOf(classShape);
+        JDefinedClass clazz = keyClasses.get(id);
+        if (clazz != null) {
+            shapeClasses.put(classShape, clazz);
+            return;
+        }
+
+        String uniqueName = uniqueClassName(className);
+        clazz = options.isImmutable()
+            ? jPackage._class(JMod.PUBLIC | JMod.FINAL, uniqueName) : jPackage._class(uniqueName);
+        annotateClass(clazz);
+        classMap.put(uniqueName, clazz);
+        keyClasses.put(id, clazz);
+        shapeClasses.put(classShape, clazz);
+        fieldMap.put(clazz, new TreeSet<>(fieldComparator));
+
+        // 遍历该对象的所有字段
+        for (Map.Entry<String, JsonShape> entry : classShape.getProperties().entrySet()) {
+            progressBar.checkCanceled();
+
+            // 获取字段名称和子形状
+            String childProperty = entry.getKey();
+            JsonShape childShape = entry.getValue();
+
+            // 向对象和数组递归
+            int childKind = childShape.kind();
+            if (childKind == JsonShape.OBJECT) {
+                String childName = names.className(childProperty);
+                parseObject(childShape, childName, jPackage);
+            } else if (childKind == JsonShape.ARRAY) {
+                String childName = names.singularClassName(childProperty);
+                parseArray(childShape, childName, jPackage);
+            } else if (childKind == JsonShape.STRING) {
+                parseString(childShape, names.className(childProperty), jPackage);
+            }
+
+            // 现在尝试创建字段并将其添加到字段集中
+            FieldInfo field =
+                getFieldInfoFromShape(childShape, childProperty, classShape.isPrimitive(childProperty), jPackage.owner());
+            if (field != null) {
+                fieldMap.get(clazz).add(field);
+            }
+        }
+    }
+
+    /**
+     * @param className 首选的类名。
+     * @return 首选的类名，已被占用时追加从 2 开始的序号。
+     */
+    private String uniqueClassName(String className) {
+        if (!classMap.containsKey(className) && !enumNames.contains(className)) {
+            return className;
+        }
+        int suffix = 2;
+        while (classMap.containsKey(className + suffix) || enumNames.contains(className + suffix)) {
+            suffix++;
+        }
+        return className + suffix;
+    }
+
+    /**
+     * 取值很少的字符串形状生成为枚举，每个常量用序列化注解映射到原始的字符串值。
+     *
+     * @param stringShape JSON 字符串的形状。
+     * @param className   首选的枚举名。
+     * @param jPackage    生成类的代码模型包。
+     * @throws Exception 异常
+     */
+    private void parseString(JsonShape stringShape, String className, JPackage jPackage) throws Exception {
+        List<String> values = stringShape.enumValues();
+        if (!options.isStringEnums() || values == null) {
+            return;
+        }
+
+        String key = ShapeKeys.enumKey(values);
+        JDefinedClass enumClass = enumClasses.get(key);
+        if (enumClass == null) {
+            String uniqueName = uniqueClassName(className);
+            enumClass = jPackage._enum(uniqueName);
+            annotateClass(enumClass);
+            enumNames.add(uniqueName);
+            enumClasses.put(key, enumClass);
+
+            Set<String> constants = new HashSet<>();
+            for (String value : values) {
+                String constant = formatConstantName(value);
+                if (!constants.add(constant)) {
+                    int suffix = 2;
+                    while (!constants.add(constant + "_" + suffix)) {
+                        suffix++;
+                    }
+                    constant = constant + "_" + suffix;
+                }
+                annotateConstant(enumClass, enumClass.enumConstant(constant), value, options.getTarget());
+            }
+        }
+        shapeEnums.put(stringShape, enumClass);
+    }
+
+    /**
+     * 生成给定数组形状的所有子对象。
+     *
+     * @param arrayShape JSON 数组的形状。
+     * @param className 的格式化名称。
+     * @param jPackage  生成类的代码模型包。
+     * @throws Exception 异常
+     */
+    private void parseArray(JsonShape arrayShape, String className, JPackage jPackage) throws Exception {
+        JsonShape element = arrayShape.getElement();
+        if (element == null) {
+            return;
+        }
+
+        // 对对象或数组元素进行递归
+        int elementKind = element.kind();
+        if (elementKind == JsonShape.OBJECT) {
+            parseObject(element, className, jPackage);
+        } else if (elementKind == JsonShape.ARRAY) {
+            parseArray(element, className, jPackage);
+        } else if (elementKind == JsonShape.STRING) {
+            parseString(element, className, jPackage);
+        }
+    }
+
+    /**
+     * 在给定的类中创建一个字段。
+     *
+     * @param shape        描述字段的 JSON 形状。
+     * @param propertyName 要创建的字段的名称。
+     * @param primitive    标量是否使用基本类型，见 {@link JsonShape#isPrimitive(String)}。
+     * @param jCodeModel   生成代码时使用的代码模型。
+     * @return {@link FieldInfo} 代表新字段。
+     * @throws Exception 异常
+     */
+    private FieldInfo getFieldInfoFromShape(JsonShape shape, String propertyName, boolean primitive,
+        JCodeModel jCodeModel) throws Exception {
+        // 开启形状类型
+        switch (shape.kind()) {
+            case JsonShape.ARRAY:
+                // 没有元素？返回 List<Deferred>。
+                JsonShape element = shape.getElement();
+                if (element == null) {
+                    return fieldInfo(deferredList, propertyName);
+                }
+
+                // 获取数组类型
+                switch (element.kind()) {
+                    case JsonShape.OBJECT:
+                        // 获取为元素形状创建的类
+                        JDefinedClass newClass = shapeClasses.get(element);
+
+                        // 现在返回指向新类别列表的字段
+                        return fieldInfo(jCodeModel.ref(List.class).narrow(newClass), propertyName);
+                    case JsonShape.ARRAY:
+                        // 递归获取该元素的字段信息
+                        FieldInfo fi = getFieldInfoFromShape(element, propertyName, false, jCodeModel);
+
+                        // 创建递归类型的 List<>
+                        return fieldInfo(jCodeModel.ref(List.class).narrow(fi.Type), propertyName);
+                    case JsonShape.FLOAT:
+                    case JsonShape.INTEGER:
+                        return fieldInfo(primitiveArrays(element) ? numberType(element, true, jCodeModel).array() :
+                            jCodeModel.ref(List.class).narrow(numberType(element, false, jCodeModel)), propertyName);
+                    case JsonShape.BOOLEAN:
+                        return fieldInfo(primitiveArrays(element) ? jCodeModel.BOOLEAN.array() :
+                            jCodeModel.ref(List.class).narrow(Boolean.class), propertyName);
+                    case JsonShape.STRING:
+                        return fieldInfo(jCodeModel.ref(List.class).narrow(stringType(element, jCodeModel)),
+                            propertyName);
+                    case JsonShape.NULL:
+                        // 空值？返回 List<Deferred>。
+                        return fieldInfo(deferredList, propertyName);
+                    default:
+                        return fieldInfo(jCodeModel.ref(List.class).narrow(Object.class), propertyName);
+                }
+            case JsonShape.BOOLEAN:
+                return fieldInfo(primitive ? jCodeModel.BOOLEAN : jCodeModel.ref(Boolean.class), propertyName);
+            case JsonShape.FLOAT:
+            case JsonShape.INTEGER:
+                return fieldInfo(numberType(shape, primitive, jCodeModel), propertyName);
+            case JsonShape.NULL:
+                // 将类型引用推迟到以后
+                return fieldInfo(deferredClass, propertyName);
+            case JsonShape.OBJECT:
+                // 获取为该形状创建的类
+                JDefinedClass objectClass = shapeClasses.get(shape);
+
+                // 现在将字段作为已定义的类返回
+                return fieldInfo(objectClass, propertyName);
+            case JsonShape.STRING:
+                return fieldInfo(stringType(shape, jCodeModel), propertyName);
+            default:
+                // 类型互不兼容，只能使用 Object
+                return fieldInfo(jCodeModel.ref(Object.class), propertyName);
+        }
+    }
+
+    /**
+     * 按观察到的取值范围和精度选择数值类型，见 {@link JsonShape#numberType(boolean, double)}。
+     *
+     * @param shape      数值形状。
+     * @param primitive  是否使用基本类型；为 false 时装箱。
+     * @param jCodeModel 代码模型。
+     * @return 数值字段的类型。
+     */
+    private JType numberType(JsonShape shape, boolean primitive, JCodeModel jCodeModel) {
+        JType type = jCodeModel._ref(shape.numberType(options.isNarrowNumbers(), options.getNumberMargin()));
+        return primitive ? type : type.boxify();
+    }
+
+    /**
+     * @param shape      字符串形状。
+     * @param jCodeModel 代码模型。
+     * @return 为该形状生成的枚举，没有生成枚举时为 String。
+     */
+    private JClass stringType(JsonShape shape, JCodeModel jCodeModel) {
+        JDefinedClass enumClass = shapeEnums.get(shape);
+        return enumClass != null ? enumClass : jCodeModel.ref(String.class);
+    }
+
+    /**
+     * @param element 数组的元素形状。
+     * @return 如果数组应生成为基本类型数组。
+     */
+    private boolean primitiveArrays(JsonShape element) {
+        return options.isPrimitiveArrays() && element.isPrimitiveValue();
+    }
+
+    /**
+     * 使用本次生成的名称表创建字段描述。
+     *
+     * @param type         字段类型。
+     * @param propertyName 原始 JSON 属性名称。
+     * @return {@link FieldInfo} 代表新字段。
+     */
+    private FieldInfo fieldInfo(JType type, String propertyName) {
+        return new FieldInfo(type, propertyName, names.fieldName(propertyName), names.className(propertyName),
+            names.identifier(propertyName));
+    }
+
+    /**
+     * 生成给定类的所有字段。
+     *
+     * @param clazz            类，为其生成子对象和字段。
+     * @param fields           要生成的字段集。
+     * @param jCodeModel       代码模型。
+     * @param options          生成选项。
+     * @param valueClasses     不可变的类的生成器，类可变时为 null。
+     * @return 生成的字段列表。
+     */
+    private List<GeneratedField> generateFields(JDefinedClass clazz, Set<FieldInfo> fields, JCodeModel jCodeModel,
+        GenerateOptions options, ValueClasses valueClasses) {
+        List<GeneratedField> generatedFields = new ArrayList<>();
+        boolean immutable = options.isImmutable();
+        int mods = immutable ? JMod.PRIVATE | JMod.FINAL : JMod.PRIVATE;
+
+        // 获取已排序的字段名列表
+        for (FieldInfo fieldInfo : fields) {
+            progressBar.checkCanceled();
+
+            // 使用正确的命名方案创建字段
+            String fieldName = fieldInfo.FieldName;
+
+            // 解析延迟类型
+            JFieldVar newField;
+            if (fieldInfo.Type.equals(deferredClass)) {
+                // 尝试从类映射中获取类
+                String newClassName = names.className(fieldInfo.PropertyName);
+                JDefinedClass newClass = classMap.get(newClassName);
+
+                // 现在返回实际类类型的字段
+                if (newClass != null) {
+                    newField = clazz.field(mods, newClass, fieldName);
+                } else {
+                    // 否则，只需创建一个对象类型的字段即可
+                    newField = clazz.field(mods, jCodeModel.ref(Object.class), fieldName);
+                }
+            } else if (fieldInfo.Type.equals(deferredList)) {
+                // 尝试从类映射中获取类
+                String newClassName = names.singularClassName(fieldInfo.PropertyName);
+                JDefinedClass newClass = classMap.get(newClassName);
+
+                // 现在返回指向新类别列表的字段
+                if (newClass != null) {
+                    newField = clazz.field(mods, jCodeModel.ref(List.class).narrow(newClass), fieldName);
+                } else {
+                    // 否则，只需创建一个 List<Object> 类型的字段即可。
+                    newField = clazz.field(mods, jCodeModel.ref(List.class).narrow(Object.class), fieldName);
+                }
+            } else {
+                // 否则，只需创建一个 List<Object> 类型的字段即可。
+                newField = clazz.field(mods, fieldInfo.Type, fieldName);
+            }
+
+            if (newField != null) {
+                // 注释字段
+                annotateField(newField, fieldInfo.PropertyName, options.getTarget());
+
+                // 创建获取器；不可变的类不暴露内部的数组
+                createGetter(clazz, newField, fieldInfo.AccessorName, valueClasses);
+
+                // 仅在不生成生成器类且类可变时创建设置器方法
+                if (!options.isGenerateBuilders() && !immutable) {
+                    createSetter(clazz, newField, fieldInfo.AccessorName, fieldInfo.ParamName);
+                }
+
+                // 将字段添加到返回列表
+                generatedFields.add(new GeneratedField(newField, fieldInfo));
+            }
+        }
+
+        return generatedFields;
+    }
+
+    /**
+     * 生成包含类的内部构建器类，并为给定字段提供方法。
+     *
+     * @param clazz  类中生成生成器类。
+     * @param fields 生成的字段列表。
+     * @throws Exception 异常
+     */
+    private void generateBuilder(JDefinedClass clazz, List<GeneratedField> fields) throws Exception {
+        // 先创建创建器
+        JDefinedClass builder = clazz._class(JMod.PUBLIC | JMod.STATIC, "Builder");
+
+        // 获取已排序的字段名列表
+        for (GeneratedField generatedField : fields) {
+            // 创建新字段
+            builder.field(JMod.PRIVATE, generatedField.Field.type(), generatedField.Field.name());
+
+            // 创建构建器设置方法
+            createBuilderSetter(builder, generatedField.Field, generatedField.Info.AccessorName,
+                generatedField.Info.ParamName);
+        }
+
+        // 创建构建方法
+        createBuildMethod(clazz, builder, fields);
+    }
+
+    /**
+     * 为类添加 {@link Generated} 注解。
+     *
+     * @param clazz 要注释的类。
+     */
+    static void annotateClass(JDefinedClass clazz) {
+        clazz.annotate(Generated.class).param("value", "net.hexar.Json2Object");
+        clazz.annotate(SuppressWarnings.class).param("value", "unused");
+    }
+
+    /**
+     * 添加{@link Expose} 注解和潜在的{@link SerializedName} 注解到给定的
+     * 只有当属性名与字段名不同时，才会使用后者。面向 Jackson 时总是添加 @JsonProperty，
+     * 因为私有字段和访问器的名称都不一定与属性名一致。
+     *
+     * @param field        要注释的字段。
+     * @param propertyName 的原始 JSON 属性名称。
+     * @param target       目标 JSON 库。
+     */
+    private static void annotateField(JFieldVar field, String propertyName, GenerateOptions.Target target) {
+        if (target == GenerateOptions.Target.JACKSON) {
+            field.annotate(field.type().owner().ref("com.fasterxml.jackson.annotation.JsonProperty"))
+                .param("value", propertyName);
+            return;
+        }
+
+        // 如果字段名称与属性名称不匹配，则使用序列化名称注解
+        if (!field.name().equals(propertyName)) {
+            field.annotate(SerializedName.class).param("value", propertyName);
+
+            // 如果我们总是添加 @Expose，那么也添加这个
+            if (ALWAYS_ANNOTATE_EXPOSE) {
+                field.annotate(Expose.class);
+            }
+        } else {
+            // 否则，只需添加 @Expose
+            field.annotate(Expose.class);
+        }
+    }
+
+    /**
+     * 为枚举常量添加序列化注解，将其映射到原始的字符串值。
+     *
+     * @param enumClass 常量所在的枚举。
+     * @param constant  枚举常量。
+     * @param value     原始的字符串值。
+     * @param target    目标 JSON 库。
+     */
+    private static void annotateConstant(JDefinedClass enumClass, JEnumConstant constant, String value,
+        GenerateOptions.Target target) {
+        if (target == GenerateOptions.Target.JACKSON) {
+            constant.annotate(enumClass.owner().ref("com.fasterxml.jackson.annotation.JsonProperty"))
+                .param("value", value);
+        } else {
+            constant.annotate(SerializedName.class).param("value", value);
+        }
+    }
+
+    /**
+     * 为给定的类、字段和属性名称生成生成器方法。
+     *
+     * @param builder      类中生成生成器方法。
+     * @param field        要设置的字段。
+     * @param accessorName 方法名中 "with" 之后的部分。
+     * @param paramName    参数名称。
+     * @return 一个{@link JMethod}，它是给定字段的构建方法。
+     */
+    private static JMethod createBuilderSetter(JDefinedClass builder, JFieldVar field, String accessorName,
+        String paramName) {
+        // 方法名称应以 "set "开头，然后是大写的类名
+        JMethod withMethod = builder.method(JMod.PUBLIC, builder, "with" + accessorName);
+
+        // 参数名称为小写驼峰字母
+        JVar param = withMethod.param(field.type(), paramName);
+
+        // 分配给字段名
+        JBlock body = withMethod.body();
+        if (field.name().equals(paramName)) {
+            // 指定 this.FieldName = paramName
+            body.assign(JExpr._this().ref(field), param);
+        } else {
+            // 可以安全地直接指定 FieldName = paramName
+            body.assign(field, param);
+        }
+        body._return(JExpr._this());
+        return withMethod;
+    }
+
+    /**
+     * 为构建器创建构建方法。
+     *
+     * @param owner   要构建的包含类。
+     * @param builder 生成方法的构建器。
+     * @param fields  的生成字段列表。
+     */
+    private JMethod createBuildMethod(JDefinedClass owner, JDefinedClass builder, List<GeneratedField> fields) {
+        // 方法名称应以 "set "开头，然后是大写的类名
+        JMethod buildMethod = builder.method(JMod.PUBLIC, owner, "build");
+
+        // 分配给字段名
+        JBlock body = buildMethod.body();
+
+        // 不可变的类通过接收所有字段的构造器创建
+        if (options.isImmutable()) {
+            List<JExpression> args = new ArrayList<>(fields.size());
+            for (GeneratedField field : fields) {
+                args.add(JExpr.ref(field.Field.name()));
+            }
+            body._return(ValueClasses.construct(owner, args));
+            return buildMethod;
+        }
+
+        // 声明所有者类的新实例
+        String localName = names.identifier(owner.name());
+        JVar local = body.decl(owner, localName, JExpr._new(owner));
+
+        // 获取已排序的字段名列表
+        for (GeneratedField field : fields) {
+            // 在所有者类中分配字段
+            body.assign(local.ref(field.Field.name()), JExpr.ref(field.Field.name()));
+        }
+
+        // 返回新实例
+        body._return(local);
+        return buildMethod;
+    }
+
+    /**
+     * 为给定的类、字段和属性名称生成一个获取器。
+     *
+     * @param clazz        类中生成一个 getter。
+     * @param field        要返回的字段。
+     * @param accessorName 方法名中 "get" 之后的部分。
+     * @param valueClasses 不可变的类的生成器，由其决定返回字段的副本还是字段本身；类可变时为 null。
+     * @return 一个{@link JMethod}，它是给定字段的获取器。
+     */
+    private static JMethod createGetter(JDefinedClass clazz, JFieldVar field, String accessorName,
+        ValueClasses valueClasses) {
+        // 方法名称应以 "get "开头，然后是大写的类名
+        JMethod getter = clazz.method(JMod.PUBLIC, field.type(), "get" + accessorName);
+
+        // 返回字段
+        JBlock body = getter.body();
+        body._return(valueClasses == null ? field : valueClasses.getterValue(body, field.type(), field));
+        return getter;
+    }
+
+    /**
+     * 为给定的类、字段和属性名称生成一个设置器。
+     *
+     * @param clazz        类中生成一个设置器。
+     * @param field        要设置的字段。
+     * @param accessorName 方法名中 "set" 之后的部分。
+     * @param paramName    参数名称。
+     * @return 一个{@link JMethod}，它是给定字段的设置器。
+     */
+    private static JMethod createSetter(JDefinedClass clazz, JFieldVar field, String accessorName,
+        String paramName) {
+        // 方法名称应以 "set "开头，然后是大写的类名
+        JMethod setter = clazz.method(JMod.PUBLIC, void.class, "set" + accessorName);
+
+        // 参数名称为小写驼峰字母
+        JVar param = setter.param(field.type(), paramName);
+
+        // 分配给字段名
+        JBlock body = setter.body();
+        if (field.name().equals(paramName)) {
+            // 指定 this.FieldName = paramName
+            body.assign(JExpr._this().ref(field), param);
+        } else {
+            // 可以安全地直接指定 FieldName = paramName
+            body.assign(field, param);
+        }
+        return setter;
+    }
+
+    /**
+     * 将给定的属性名格式化为更标准的类名。
+     *
+     * @param propertyName 的原始属性名称。
+     * @return 格式化的类名。
+     */
+    public static String formatClassName(String propertyName) {
+        return StringUtils.capitalize(sanitizePropertyName(propertyName));
+    }
+
+    /**
+     * 将给定的属性名格式化为更标准的字段名。
+     *
+     * @param propertyName 的原始属性名称。
+     * @param useMPrefix   如果字段名的前缀为 "m"，则为 true。
+     * @return 格式化的字段名。
+     */
+    static String formatFieldName(String propertyName, boolean useMPrefix) {
+        String fieldName = sanitizePropertyName(propertyName);
+
+        if (useMPrefix) {
+            fieldName = "m" + StringUtils.capitalize(fieldName);
+        }
+        return fieldName;
+    }
+
+    /**
+     * 将字符串值格式化为枚举常量名：单词大写并以下划线分隔，驼峰和非字母数字字符都作为单词边界。
+     *
+     * @param value 原始的字符串值。
+     * @return 有效的常量名。
+     */
+    static String formatConstantName(String value) {
+        StringBuilder constant = new StringBuilder(value.length() + 4);
+        boolean separate = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                separate = constant.length() > 0;
+                continue;
+            }
+
+            // 小写字母或数字之后的大写字母开始一个新单词
+            boolean camel = Character.isUpperCase(c) && i > 0 && Character.isLetterOrDigit(value.charAt(i - 1))
+                && !Character.isUpperCase(value.charAt(i - 1));
+            if (separate || camel && constant.length() > 0) {
+                constant.append('_');
+            }
+            constant.append(Character.toUpperCase(c));
+            separate = false;
+        }
+
+        if (constant.length() == 0) {
+            return "EMPTY";
+        }
+        if (!Character.isJavaIdentifierStart(constant.charAt(0))) {
+            constant.insert(0, '_');
+        }
+        return constant.toString();
+    }
+
+    /**
+     * 以字符串形式给出属性名称，通过删除非字母数字字符并将非字母数字字符后的字母大写，创建有效的标识符。
+     *
+     * @param propertyName 要格式化的属性名称。
+     * @return 一个包含大写单词的字符串，去掉下划线。
+     */
+    static String sanitizePropertyName(String propertyName) {
+        final StringBuilder formattedName = new StringBuilder(propertyName.length());
+        boolean uppercaseNext = false;
+
+        // 避免无效的类名/字段名起始字符
+        if (Character.isJavaIdentifierStart(propertyName.charAt(0))) {
+            formattedName.append(Character.toLowerCase(propertyName.charAt(0)));
+        }
+
+        // 避免无效的类名/字段名起始字符
+        for (int charIndex = 1; charIndex < propertyName.length(); charIndex++) {
+            // 追加有效字符
+            char c = propertyName.charAt(charIndex);
+            if (Character.isAlphabetic(c)) {
+                if (uppercaseNext) {
+                    // 大写该字母
+                    formattedName.append(Character.toUpperCase(c));
+                    uppercaseNext = false;
+                } else {
+                    // 保留箱体，第一次下放
+                    formattedName.append(formattedName.length() == 0 ? Character.toLowerCase(c) : c);
+                }
+            } else if (Character.isDigit(c)) {
+                // 按原样追加
+                formattedName.append(c);
+            } else {
+                // 不要追加非字母数字部分，并将下一个字母大写
+                uppercaseNext = formattedName.length() > 0;
+            }
+        }
+
+        return formattedName.toString();
+    }
+
+    /**
+     * 根形状的来源。
+     */
+    private interface ShapeSource {
+        /**
+         * @param reader 形状读取器
+         * @return 根形状
+         * @throws IOException 读取或解析失败
+         */
+        JsonShape infer(ShapeReader reader) throws IOException;
+    }
+
+    /**
+     * 打开要读取的输入流。
+     */
+    public interface InputSource {
+        /**
+         * @return 新打开的输入流，由调用方关闭
+         * @throws IOException 打开失败
+         */
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Class 类型，表示我们还不知道该字段代表的数据类型。
+     */
+    private static class Deferred {
+
+    }
+
+    /**
+     * 每个属性名只格式化一次的名称表，同一次生成中重复出现的属性名直接复用已计算的名称。
+     */
+    private static class NameTable {
+        private final boolean useMPrefix;
+        private final Map<String, Names> names = new HashMap<>();
+
+        NameTable(boolean useMPrefix) {
+            this.useMPrefix = useMPrefix;
+        }
+
+        /**
+         * @return {@link GenerateObject#sanitizePropertyName(String)} 的结果
+         */
+        String identifier(String propertyName) {
+            return names(propertyName).Identifier;
+        }
+
+        /**
+         * @return {@link GenerateObject#formatClassName(String)} 的结果
+         */
+        String className(String propertyName) {
+            return names(propertyName).ClassName;
+        }
+
+        /**
+         * @return 属性名的单数形式格式化后的类名
+         */
+        String singularClassName(String propertyName) {
+            Names entry = names(propertyName);
+            if (entry.SingularClassName == null) {
+                entry.SingularClassName = className(Inflector.getInstance().singularize(propertyName));
+            }
+            return entry.SingularClassName;
+        }
+
+        /**
+         * @return {@link GenerateObject#formatFieldName(String, boolean)} 的结果
+         */
+        String fieldName(String propertyName) {
+            return names(propertyName).FieldName;
+        }
+
+        private Names names(String propertyName) {
+            Names entry = names.get(propertyName);
+            if (entry == null) {
+                entry = new Names(propertyName, useMPrefix);
+                names.put(propertyName, entry);
+            }
+            return entry;
+        }
+
+        /**
+         * 一个属性名格式化后的各种名称。
+         */
+        private static class Names {
+            final String Identifier;
+            final String ClassName;
+            final String FieldName;
+            String SingularClassName;
+
+            Names(String propertyName, boolean useMPrefix) {
+                Identifier = sanitizePropertyName(propertyName);
+                ClassName = StringUtils.capitalize(Identifier);
+                FieldName = useMPrefix ? "m" + ClassName : Identifier;
+            }
+        }
+    }
+
+    /**
+     * 比较器，按字段名对字段名数据对象进行排序，不区分大小写。
+     */
+    private static class FieldComparator implements Comparator<FieldInfo> {
+
+        @Override
+        public int compare(FieldInfo left, FieldInfo right) {
+            // 按预先格式化的字段名而不是属性名排序
+            return left.FieldName.compareTo(right.FieldName);
+        }
+    }
+
+    /**
+     * 要创建的字段的简单表示。
+     */
+    static class FieldInfo {
+        final JType Type;
+        final String PropertyName;
+        /**
+         * 格式化的字段名
+         */
+        final String FieldName;
+        /**
+         * 访问器方法名中 get/set/with 之后的部分
+         */
+        final String AccessorName;
+        /**
+         * 设置器参数名
+         */
+        final String ParamName;
+
+        FieldInfo(JType type, String propertyName, String fieldName, String accessorName, String paramName) {
+            Type = type;
+            PropertyName = propertyName;
+            FieldName = fieldName;
+            AccessorName = accessorName;
+            ParamName = paramName;
+        }
+    }
+
+    /**
+     * 一个包含生成的 {@link JFieldVar} 字段及其字段描述的对。
+     */
+    static class GeneratedField {
+        final JFieldVar Field;
+        final FieldInfo Info;
+
+        GeneratedField(JFieldVar field, FieldInfo info) {
+            Field = field;
+            Info = info;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.hgy.plugin.j2o;
+
+import java.util.Locale;
+
+/**
+ * 代码生成选项。
+ *
+ * @author hgy
+ * @since 2026-10-16 10:31:52
+ */
+public final class GenerateOptions {
+
+    /**
+     * 生成的类面向的 JSON 库
+     */
+    public enum Target {
+        /**
+         * 使用 Gson 注解
+         */
+        GSON("Gson"),
+        /**
+         * 使用 @JsonProperty 注解，并生成流式的 JsonDeserializer 和 JsonSerializer
+         */
+        JACKSON("Jackson");
+
+        private final String label;
+
+        Target(String label) {
+            this.label = label;
+        }
+
+        /**
+         * 按命令行和构建脚本中使用的名称查找目标库。
+         *
+         * @param name gson 或 jackson，不区分大小写
+         * @return 目标库
+         * @throws IllegalArgumentException 名称未知
+         */
+        public static Target parse(String name) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "gson":
+                    return GSON;
+                case "jackson":
+                    return JACKSON;
+                default:
+                    throw new IllegalArgumentException("unknown target: " + name);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * 目标 JSON 库
+     */
+    private Target target = Target.GSON;
+    /**
+     * 是否省略设置器并生成构建器
+     */
+    private boolean generateBuilders;
+    /**
+     * 字段名是否使用 "m" 前缀
+     */
+    private boolean useMPrefix;
+    /**
+     * 是否为每个类生成不使用反射的 Gson TypeAdapter，以及注册它们的 TypeAdapterFactory，仅用于 Gson
+     */
+    private boolean generateTypeAdapters;
+    /**
+     * 元素从不为 null 的布尔和数值数组是否生成为基本类型数组
+     */
+    private boolean primitiveArrays;
+    /**
+     * 是否按观察到的取值范围和精度将数值收窄为 short、int 或 float
+     */
+    private boolean narrowNumbers;
+    /**
+     * 收窄数值时的安全系数，观察值乘以该系数后仍须在所选类型的范围内
+     */
+    private double numberMargin = 2;
+    /**
+     * 是否将取值很少的字符串字段生成为枚举
+     */
+    private boolean stringEnums;
+    /**
+     * 是否生成不可变的值类：final 字段、接收所有字段的构造器、不可修改的列表，以及 equals、hashCode 和 toString
+     */
+    private boolean immutable;
+    /**
+     * 数组元素采样策略
+     */
+    private ArraySampling arraySampling = ArraySampling.ALL;
+
+    /**
+     * @return 目标 JSON 库
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * @param target 目标 JSON 库
+     * @return 当前选项
+     */
+    public GenerateOptions withTarget(Target target) {
+        this.target = target;
+        return this;
+    }
+
+    /**
+     * @return 是否省略设置器并生成构建器
+     */
+    public boolean isGenerateBuilders() {
+        return generateBuilders;
+    }
+
+    /**
+     * @param generateBuilders 是否省略设置器并生成构建器
+     * @return 当前选项
+     */
+    public GenerateOptions withGenerateBuilders(boolean generateBuilders) {
+        this.generateBuilders = generateBuilders;
+        return this;
+    }
+
+    /**
+     * @return 字段名是否使用 "m" 前缀
+     */
+    public boolean isUseMPrefix() {
+        return useMPrefix;
+    }
+
+    /**
+     * @param useMPrefix 字段名是否使用 "m" 前缀
+     * @return 当前选项
+     */
+    public GenerateOptions withUseMPrefix(boolean useMPrefix) {
+        this.useMPrefix = useMPrefix;
+        return this;
+    }
+
+    /**
+     * @return 是否为每个类生成不使用反射的 Gson TypeAdapter，以及注册它们的 TypeAdapterFactory，仅用于 Gson
+     */
+    public boolean isGenerateTypeAdapters() {
+        return generateTypeAdapters;
+    }
+
+    /**
+     * @param generateTypeAdapters 是否为每个类生成不使用反射的 Gson TypeAdapter，以及注册它们的 TypeAdapterFactory，仅用于 Gson
+     * @return 当前选项
+     */
+    public GenerateOptions withGenerateTypeAdapters(boolean generateTypeAdapters) {
+        this.generateTypeAdapters = generateTypeAdapters;
+        return this;
+    }
+
+    /**
+     * @return 元素从不为 null 的布尔和数值数组是否生成为基本类型数组
+     */
+    public boolean isPrimitiveArrays() {
+        return primitiveArrays;
+    }
+
+    /**
+     * @param primitiveArrays 元素从不为 null 的布尔和数值数组是否生成为基本类型数组
+     * @return 当前选项
+     */
+    public GenerateOptions withPrimitiveArrays(boolean primitiveArrays) {
+        this.primitiveArrays = primitiveArrays;
+        return this;
+    }
+
+    /**
+     * @return 是否按观察到的取值范围和精度将数值收窄为 short、int 或 float
+     */
+    public boolean isNarrowNumbers() {
+        return narrowNumbers;
+    }
+
+    /**
+     * @param narrowNumbers 是否按观察到的取值范围和精度将数值收窄为 short、int 或 float
+     * @return 当前选项
+     */
+    public GenerateOptions withNarrowNumbers(boolean narrowNumbers) {
+        this.narrowNumbers = narrowNumbers;
+        return this;
+    }
+
+    /**
+     * @return 收窄数值时的安全系数，观察值乘以该系数后仍须在所选类型的范围内
+     */
+    public double getNumberMargin() {
+        return numberMargin;
+    }
+
+    /**
+     * @param numberMargin 收窄数值时的安全系数，至少为 1
+     * @return 当前选项
+     * @throws IllegalArgumentException 安全系数小于 1
+     */
+    public GenerateOptions withNumberMargin(double numberMargin) {
+        if (!(numberMargin >= 1)) {
+            throw new IllegalArgumentException("number margin must be at least 1: " + numberMargin);
+        }
+        this.numberMargin = numberMargin;
+        return this;
+    }
+
+    /**
+     * @return 是否将取值很少的字符串字段生成为枚举
+     */
+    public boolean isStringEnums() {
+        return stringEnums;
+    }
+
+    /**
+     * @param stringEnums 是否将取值很少的字符串字段生成为枚举
+     * @return 当前选项
+     */
+    public GenerateOptions withStringEnums(boolean stringEnums) {
+        this.stringEnums = stringEnums;
+        return this;
+    }
+
+    /**
+     * @return 是否生成不可变的值类：final 字段、接收所有字段的构造器、不可修改的列表，以及 equals、hashCode 和 toString
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * @param immutable 是否生成不可变的值类：final 字段、接收所有字段的构造器、不可修改的列表，以及 equals、hashCode 和 toString
+     * @return 当前选项
+     */
+    public GenerateOptions withImmutable(boolean immutable) {
+        this.immutable = immutable;
+        return this;
+    }
+
+    /**
+     * @return 数组元素采样策略
+     */
+    public ArraySampling getArraySampling() {
+        return arraySampling;
+    }
+
+    /**
+     * @param arraySampling 数组元素采样策略
+     * @return 当前选项
+     */
+    public GenerateOptions withArraySampling(ArraySampling arraySampling) {
+        this.arraySampling = arraySampling;
+        return this;
+    }
+}
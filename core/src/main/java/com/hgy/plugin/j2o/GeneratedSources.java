@@ -0,0 +1,144 @@
+package com.hgy.plugin.j2o;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 在内存中渲染生成的源文件，写入时只覆盖内容发生变化的文件。
+ *
+ * @author hgy
+ * @since 2026-10-16 13:05:44
+ */
+public final class GeneratedSources extends CodeWriter {
+    /**
+     * 相对于源根的文件路径（以 / 分隔）映射文件内容
+     */
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+    /**
+     * 每渲染一个文件前调用的取消检查
+     */
+    private final Runnable checkCanceled;
+
+    /**
+     * 创建不检查取消的实例
+     */
+    public GeneratedSources() {
+        this(() -> {
+        });
+    }
+
+    /**
+     * 构造器
+     *
+     * @param checkCanceled 每渲染一个文件前调用的取消检查，已取消时抛出非受检异常以中止渲染
+     */
+    public GeneratedSources(Runnable checkCanceled) {
+        this.checkCanceled = checkCanceled;
+    }
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName) {
+        checkCanceled.run();
+        String path = pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + '/' + fileName;
+        return new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                files.put(path, toByteArray());
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return 所有渲染出的文件，键为相对于源根的路径
+     */
+    public Map<String, byte[]> getFiles() {
+        return Collections.unmodifiableMap(files);
+    }
+
+    /**
+     * 将渲染出的文件写入源根目录，内容与已有文件相同的文件保持不变，不会更新修改时间。
+     *
+     * @param sourceRoot 源根目录
+     * @return 新增、修改和未变化的文件
+     * @throws IOException 读写文件失败
+     */
+    public WriteReport writeTo(Path sourceRoot) throws IOException {
+        WriteReport report = new WriteReport();
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            String path = entry.getKey();
+            byte[] content = entry.getValue();
+
+            Path file = sourceRoot.resolve(path);
+            if (!Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                Files.write(file, content);
+                report.added(path);
+            } else if (sameContent(Files.readAllBytes(file), content)) {
+                report.unchanged(path);
+            } else {
+                Files.write(file, content);
+                report.changed(path);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 删除目录中不是本次渲染出的源文件。只用于完全属于这次生成的包目录，使重新生成后不再存在的类不会残留。
+     *
+     * @param directory  包目录，不存在时什么也不做
+     * @param sourceRoot 源根目录
+     * @param report     记录删除的文件
+     * @throws IOException 删除文件失败
+     */
+    public void deleteStale(Path directory, Path sourceRoot, WriteReport report) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> stale;
+        try (Stream<Path> children = Files.list(directory)) {
+            stale = children.filter(file -> file.getFileName().toString().endsWith(".java"))
+                .filter(file -> !files.containsKey(relativePath(sourceRoot, file))).collect(Collectors.toList());
+        }
+        for (Path file : stale) {
+            Files.delete(file);
+            report.deleted(relativePath(sourceRoot, file));
+        }
+    }
+
+    /**
+     * @return 文件相对于源根的路径，以 / 分隔
+     */
+    private static String relativePath(Path sourceRoot, Path file) {
+        return sourceRoot.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * 逐字节比较两份文件内容，长度不同时立即返回。
+     *
+     * @param existing 已有的文件内容
+     * @param content  新的文件内容
+     * @return 如果内容相同，则为 true
+     */
+    public static boolean sameContent(byte[] existing, byte[] content) {
+        return Arrays.equals(existing, content);
+    }
+}
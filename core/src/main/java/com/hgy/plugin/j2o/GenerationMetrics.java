@@ -0,0 +1,220 @@
+package com.hgy.plugin.j2o;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次生成中各阶段的耗时和分配的字节数，以及推断出的值、类、字段和文件数量。
+ * <p>
+ * 每个阶段结束时提交一个 {@link GenerationPhaseEvent}，阶段进行中显示阶段名称，
+ * 并把阶段内的进度换算为整体进度。分配的字节数只统计执行该阶段的线程，并行推断的分区和在其他线程中的写入不计在内。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 15:46:02
+ */
+public final class GenerationMetrics {
+    /**
+     * 生成的各个阶段及其在整体进度中所占的区间
+     */
+    public enum Phase {
+        INFER("Inferring shape", 0.0, 0.4),
+        EMIT("Generating classes", 0.4, 0.8),
+        RENDER("Rendering sources", 0.8, 0.9),
+        WRITE("Writing files", 0.9, 1.0);
+
+        private final String label;
+        private final double from;
+        private final double to;
+
+        Phase(String label, double from, double to) {
+            this.label = label;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final GenerationProgress progress;
+    private final long[] wallNanos = new long[Phase.values().length];
+    private final long[] allocatedBytes = new long[Phase.values().length];
+    /**
+     * 当前阶段，没有阶段进行中时为 null
+     */
+    private Phase current;
+
+    private long values;
+    private int classes;
+    private int fields;
+    private int files;
+
+    /**
+     * 构造器
+     *
+     * @param progress 显示阶段和进度
+     */
+    GenerationMetrics(GenerationProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * 开始一个阶段，关闭返回的作用域时记录该阶段。
+     *
+     * @param phase 阶段
+     * @return 阶段的作用域
+     */
+    public Scope begin(Phase phase) {
+        current = phase;
+        progress.setText(phase.label);
+        progress.setText2(null);
+        progress.setFraction(phase.from);
+        return new Scope(phase);
+    }
+
+    /**
+     * 报告当前阶段内的进度。
+     *
+     * @param fraction 当前阶段已完成的比例，0 到 1
+     */
+    void progress(double fraction) {
+        Phase phase = current;
+        if (phase != null) {
+            progress.setFraction(phase.from + (phase.to - phase.from) * Math.min(1.0, fraction));
+        }
+    }
+
+    void setValues(long values) {
+        this.values = values;
+    }
+
+    void setClasses(int classes) {
+        this.classes = classes;
+    }
+
+    void setFields(int fields) {
+        this.fields = fields;
+    }
+
+    void setFiles(int files) {
+        this.files = files;
+    }
+
+    /**
+     * @return 阶段的耗时（纳秒），未执行时为 0
+     */
+    public long getWallNanos(Phase phase) {
+        return wallNanos[phase.ordinal()];
+    }
+
+    /**
+     * @return 阶段中执行线程分配的字节数，未执行或无法统计时为 0 或 -1
+     */
+    public long getAllocatedBytes(Phase phase) {
+        return allocatedBytes[phase.ordinal()];
+    }
+
+    /**
+     * @return 读取的 JSON 值的数量
+     */
+    public long getValues() {
+        return values;
+    }
+
+    /**
+     * @return 生成的类和枚举的数量
+     */
+    public int getClasses() {
+        return classes;
+    }
+
+    /**
+     * @return 生成的字段数量
+     */
+    public int getFields() {
+        return fields;
+    }
+
+    /**
+     * @return 渲染的源文件数量
+     */
+    public int getFiles() {
+        return files;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(phase.name().toLowerCase(Locale.ROOT)).append(' ')
+                .append(TimeUnit.NANOSECONDS.toMillis(wallNanos[phase.ordinal()])).append(" ms");
+            long allocated = allocatedBytes[phase.ordinal()];
+            if (allocated >= 0) {
+                text.append(" (").append(allocated >> 10).append(" KB)");
+            }
+        }
+        return text.append("; ").append(values).append(" values, ").append(classes).append(" classes, ")
+            .append(fields).append(" fields, ").append(files).append(" files").toString();
+    }
+
+    /**
+     * @return 当前线程累计分配的字节数，无法统计时为 -1
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 一个进行中的阶段，关闭时记录耗时和分配的字节数并提交 JFR 事件。
+     */
+    public final class Scope implements AutoCloseable {
+        private final Phase phase;
+        private final GenerationPhaseEvent event = new GenerationPhaseEvent();
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Scope(Phase phase) {
+            this.phase = phase;
+            event.begin();
+            startAllocated = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            wallNanos[phase.ordinal()] = System.nanoTime() - startNanos;
+            long endAllocated = allocatedBytes();
+            long allocated = startAllocated < 0 || endAllocated < 0 ? -1 : endAllocated - startAllocated;
+            allocatedBytes[phase.ordinal()] = allocated;
+            progress.setFraction(phase.to);
+            current = null;
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.allocated = allocated;
+                event.values = values;
+                event.classes = classes;
+                event.fields = fields;
+                event.files = files;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hgy.plugin.j2o;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 生成过程中一个阶段的 JFR 事件，事件的持续时间即阶段的耗时。计数为截至该阶段结束时的累计值。
+ *
+ * @author hgy
+ * @since 2026-10-16 15:41:20
+ */
+@Name("com.hgy.plugin.j2o.GenerationPhase")
+@Label("JSON2Object Generation Phase")
+@Category("JSON2Object")
+@Description("One phase of generating classes from JSON")
+@StackTrace(false)
+final class GenerationPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the generating thread during the phase, -1 if unavailable")
+    @DataAmount
+    long allocated;
+
+    @Label("Values")
+    @Description("JSON values inferred so far")
+    long values;
+
+    @Label("Classes")
+    int classes;
+
+    @Label("Fields")
+    int fields;
+
+    @Label("Files")
+    int files;
+}
@@ -0,0 +1,50 @@
+package com.hgy.plugin.j2o;
+
+/**
+ * 生成过程的进度显示和取消检查，使生成核心不依赖 IDE。插件中由进度指示器实现，命令行中不显示进度。
+ *
+ * @author hgy
+ * @since 2026-10-16 16:20:48
+ */
+public interface GenerationProgress {
+    /**
+     * 不显示进度，也不会被取消
+     */
+    GenerationProgress NONE = new GenerationProgress() {
+        @Override
+        public void setText(String text) {
+        }
+
+        @Override
+        public void setText2(String text) {
+        }
+
+        @Override
+        public void setFraction(double fraction) {
+        }
+
+        @Override
+        public void checkCanceled() {
+        }
+    };
+
+    /**
+     * @param text 当前阶段的说明
+     */
+    void setText(String text);
+
+    /**
+     * @param text 当前处理的对象，没有时为 null
+     */
+    void setText2(String text);
+
+    /**
+     * @param fraction 整体进度，0 到 1
+     */
+    void setFraction(double fraction);
+
+    /**
+     * 检查生成是否已被取消，已取消时抛出非受检异常以中止生成。
+     */
+    void checkCanceled();
+}
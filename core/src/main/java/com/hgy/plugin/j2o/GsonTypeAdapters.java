@@ -0,0 +1,341 @@
+package com.hgy.plugin.j2o;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.sun.codemodel.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 为生成的类生成不使用反射的 Gson {@link TypeAdapter}，以及注册所有适配器的 {@link TypeAdapterFactory}。
+ * <p>
+ * 每个类中生成一个静态内部类 GsonTypeAdapter，直接读写私有字段：写入时逐个输出属性，
+ * 读取时按属性名 switch 赋值，未知的属性被跳过。基本类型的字段直接调用 {@link JsonReader} 和 {@link JsonWriter}
+ * 的基本类型方法读写，不经过装箱的适配器；其他字段的值交给 {@link Gson#getAdapter(Class)} 返回的适配器，
+ * 对于标量和生成的类都不涉及反射；列表由工厂中生成的 ListTypeAdapter 处理，基本类型数组由工厂中按元素类型
+ * 生成的适配器（如 LongArrayTypeAdapter）直接读写，不装箱元素。不可变的类的属性先读入局部变量，
+ * 最后调用接收所有字段的构造器。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 17:52:14
+ */
+final class GsonTypeAdapters {
+    /**
+     * 每个类中生成的适配器的名称
+     */
+    private static final String ADAPTER_NAME = "GsonTypeAdapter";
+
+    private final JCodeModel model;
+    private final JClass typeAdapter;
+    private final JDefinedClass factory;
+    private final JDefinedClass listAdapter;
+    /**
+     * 生成的类是否不可变，只能通过构造器创建
+     */
+    private final boolean immutable;
+    /**
+     * 生成的类映射其适配器，按生成顺序注册到工厂中
+     */
+    private final Map<JDefinedClass, JDefinedClass> adapters = new LinkedHashMap<>();
+    /**
+     * 基本类型数组的适配器，按元素类型名按需生成
+     */
+    private final Map<String, JDefinedClass> arrayAdapters = new HashMap<>();
+
+    /**
+     * 构造器
+     *
+     * @param jPackage    生成类的代码模型包
+     * @param factoryName 工厂类的名称
+     * @param immutable   生成的类是否不可变
+     * @throws JClassAlreadyExistsException 工厂类名已被占用
+     */
+    GsonTypeAdapters(JPackage jPackage, String factoryName, boolean immutable) throws JClassAlreadyExistsException {
+        model = jPackage.owner();
+        this.immutable = immutable;
+        typeAdapter = model.ref(TypeAdapter.class);
+
+        factory = jPackage._class(JMod.PUBLIC | JMod.FINAL, factoryName);
+        factory._implements(TypeAdapterFactory.class);
+        GenerateObject.annotateClass(factory);
+        factory.javadoc().add("Registers the reflection-free type adapters of the generated classes: "
+            + "{@code new GsonBuilder().registerTypeAdapterFactory(new " + factoryName + "())}.");
+        listAdapter = createListAdapter();
+    }
+
+    /**
+     * 为一个类生成适配器。
+     *
+     * @param clazz  生成的类
+     * @param fields 类中生成的字段
+     * @throws JClassAlreadyExistsException 类中已有同名的内部类
+     */
+    void add(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields) throws JClassAlreadyExistsException {
+        JDefinedClass adapter = clazz._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, ADAPTER_NAME);
+        adapter._extends(typeAdapter.narrow(clazz));
+
+        // 在构造器中获取每个引用类型字段的值适配器，基本类型的字段直接读写
+        JMethod constructor = adapter.constructor(JMod.PUBLIC);
+        JVar gson = constructor.param(Gson.class, "gson");
+        List<JFieldVar> valueAdapters = new ArrayList<>(fields.size());
+        for (GenerateObject.GeneratedField field : fields) {
+            JType type = field.Field.type();
+            if (type.isPrimitive()) {
+                valueAdapters.add(null);
+                continue;
+            }
+            JFieldVar valueAdapter =
+                adapter.field(JMod.PRIVATE | JMod.FINAL, typeAdapter.narrow(type), field.Field.name() + "Adapter");
+            constructor.body().assign(JExpr._this().ref(valueAdapter), adapterFor(type, gson));
+            valueAdapters.add(valueAdapter);
+        }
+
+        createWrite(adapter, clazz, fields, valueAdapters);
+        createRead(adapter, clazz, fields, valueAdapters);
+        adapters.put(clazz, adapter);
+    }
+
+    /**
+     * 生成工厂的 create 方法，按原始类型返回对应的适配器。在所有类的适配器生成后调用。
+     */
+    void createFactory() {
+        JMethod create = factory.method(JMod.PUBLIC, model.VOID, "create");
+        JTypeVar t = create.generify("T");
+        create.type(typeAdapter.narrow(t));
+        create.annotate(Override.class);
+        create.annotate(SuppressWarnings.class).param("value", "unchecked");
+        JVar gson = create.param(Gson.class, "gson");
+        JVar type = create.param(model.ref(TypeToken.class).narrow(t), "type");
+
+        JBlock body = create.body();
+        JVar rawType = body.decl(model.ref(Class.class).narrow(model.wildcard()), "rawType", type.invoke("getRawType"));
+        for (Map.Entry<JDefinedClass, JDefinedClass> entry : adapters.entrySet()) {
+            body._if(rawType.eq(entry.getKey().dotclass()))._then()
+                ._return(JExpr.cast(typeAdapter.narrow(t), JExpr._new(entry.getValue()).arg(gson)));
+        }
+        body._return(JExpr._null());
+    }
+
+    /**
+     * 生成值的适配器表达式：列表由 ListTypeAdapter 包装元素的适配器，其他类型直接从 Gson 获取。
+     */
+    private JExpression adapterFor(JType type, JVar gson) throws JClassAlreadyExistsException {
+        if (type.isArray() && type.elementType().isPrimitive()) {
+            return JExpr._new(arrayAdapterOf(type.elementType()));
+        }
+        JClass clazz = (JClass)type;
+        if (clazz.erasure().equals(model.ref(List.class))) {
+            JClass element = clazz.getTypeParameters().get(0);
+            return JExpr._new(listAdapter.narrow(element)).arg(adapterFor(element, gson));
+        }
+        return gson.invoke("getAdapter").arg(clazz.erasure().dotclass());
+    }
+
+    /**
+     * 生成 write 方法：null 输出为 null，否则按字段顺序输出每个属性。
+     */
+    private void createWrite(JDefinedClass adapter, JDefinedClass clazz, List<GenerateObject.GeneratedField> fields,
+        List<JFieldVar> valueAdapters) {
+        JMethod write = adapter.method(JMod.PUBLIC, model.VOID, "write");
+        write.annotate(Override.class);
+        write._throws(IOException.class);
+        JVar out = write.param(JsonWriter.class, "out");
+        JVar value = write.param(clazz, "value");
+
+        JBlock body = write.body();
+        JBlock ifNull = body._if(value.eq(JExpr._null()))._then();
+        ifNull.add(out.invoke("nullValue"));
+        ifNull._return();
+
+        body.add(out.invoke("beginObject"));
+        for (int i = 0; i < fields.size(); i++) {
+            GenerateObject.GeneratedField field = fields.get(i);
+            body.add(out.invoke("name").arg(JExpr.lit(field.Info.PropertyName)));
+            JType type = field.Field.type();
+            if (type.isPrimitive()) {
+                body.add(out.invoke("value").arg(writablePrimitive(type, value.ref(field.Field))));
+            } else {
+                body.add(valueAdapters.get(i).invoke("write").arg(out).arg(value.ref(field.Field)));
+            }
+        }
+        body.add(out.invoke("endObject"));
+    }
+
+    /**
+     * 生成 read 方法：按属性名 switch 读取字段，跳过未知的属性。不可变的类读入局部变量后通过构造器创建。
+     */
+    private void createRead(JDefinedClass adapter, JDefinedClass clazz, List<GenerateObject.GeneratedField> fields,
+        List<JFieldVar> valueAdapters) {
+        JMethod read = adapter.method(JMod.PUBLIC, clazz, "read");
+        read.annotate(Override.class);
+        read._throws(IOException.class);
+        JVar in = read.param(JsonReader.class, "in");
+
+        JBlock body = read.body();
+        returnNullOnNull(body, in);
+        JVar result = immutable ? null : body.decl(clazz, "result", JExpr._new(clazz));
+        List<JVar> values = new ArrayList<>(fields.size());
+        if (immutable) {
+            for (GenerateObject.GeneratedField field : fields) {
+                JType type = field.Field.type();
+                values.add(body.decl(type, field.Field.name() + "Value", ValueClasses.defaultValue(type)));
+            }
+        }
+        body.add(in.invoke("beginObject"));
+        JSwitch names = body._while(in.invoke("hasNext")).body()._switch(in.invoke("nextName"));
+        for (int i = 0; i < fields.size(); i++) {
+            GenerateObject.GeneratedField field = fields.get(i);
+            JBlock property = names._case(JExpr.lit(field.Info.PropertyName)).body();
+            JType type = field.Field.type();
+            JAssignmentTarget target = immutable ? values.get(i) : result.ref(field.Field);
+            if (type.isPrimitive()) {
+                // 与反射的适配器一致，基本类型的字段遇到 null 时保留默认值
+                JConditional ifNull = property._if(in.invoke("peek").eq(model.ref(JsonToken.class).staticRef("NULL")));
+                ifNull._then().add(in.invoke("nextNull"));
+                ifNull._else().assign(target, readPrimitive(type, in));
+            } else {
+                property.assign(target, valueAdapters.get(i).invoke("read").arg(in));
+            }
+            property._break();
+        }
+        names._default().body().add(in.invoke("skipValue"));
+        body.add(in.invoke("endObject"));
+        body._return(immutable ? ValueClasses.construct(clazz, values) : result);
+    }
+
+    /**
+     * 在工厂中生成列表适配器 ListTypeAdapter&lt;E&gt;，逐个元素交给元素的适配器。
+     */
+    private JDefinedClass createListAdapter() throws JClassAlreadyExistsException {
+        JDefinedClass adapter = factory._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, "ListTypeAdapter");
+        JTypeVar e = adapter.generify("E");
+        JClass listOfE = model.ref(List.class).narrow(e);
+        adapter._extends(typeAdapter.narrow(listOfE));
+
+        JFieldVar element = adapter.field(JMod.PRIVATE | JMod.FINAL, typeAdapter.narrow(e), "element");
+        JMethod constructor = adapter.constructor(JMod.PUBLIC);
+        JVar elementParam = constructor.param(typeAdapter.narrow(e), "element");
+        constructor.body().assign(JExpr._this().ref(element), elementParam);
+
+        // write
+        JMethod write = adapter.method(JMod.PUBLIC, model.VOID, "write");
+        write.annotate(Override.class);
+        write._throws(IOException.class);
+        JVar out = write.param(JsonWriter.class, "out");
+        JVar value = write.param(listOfE, "value");
+        JBlock writeBody = write.body();
+        JBlock ifNull = writeBody._if(value.eq(JExpr._null()))._then();
+        ifNull.add(out.invoke("nullValue"));
+        ifNull._return();
+        writeBody.add(out.invoke("beginArray"));
+        JForEach items = writeBody.forEach(e, "item", value);
+        items.body().add(element.invoke("write").arg(out).arg(items.var()));
+        writeBody.add(out.invoke("endArray"));
+
+        // read
+        JMethod read = adapter.method(JMod.PUBLIC, listOfE, "read");
+        read.annotate(Override.class);
+        read._throws(IOException.class);
+        JVar in = read.param(JsonReader.class, "in");
+        JBlock readBody = read.body();
+        returnNullOnNull(readBody, in);
+        JVar list = readBody.decl(listOfE, "list", JExpr._new(model.ref(ArrayList.class).narrow(e)));
+        readBody.add(in.invoke("beginArray"));
+        readBody._while(in.invoke("hasNext")).body().add(list.invoke("add").arg(element.invoke("read").arg(in)));
+        readBody.add(in.invoke("endArray"));
+        readBody._return(list);
+        return adapter;
+    }
+
+    /**
+     * 获取基本类型数组的适配器，不存在时在工厂中生成：读取时按需扩容数组，最后截断到元素数量。
+     */
+    private JDefinedClass arrayAdapterOf(JType component) throws JClassAlreadyExistsException {
+        String name = component.name();
+        JDefinedClass adapter = arrayAdapters.get(name);
+        if (adapter != null) {
+            return adapter;
+        }
+        JClass arrayType = component.array();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        adapter = factory._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, capitalized + "ArrayTypeAdapter");
+        adapter._extends(typeAdapter.narrow(arrayType));
+        arrayAdapters.put(name, adapter);
+
+        // write
+        JMethod write = adapter.method(JMod.PUBLIC, model.VOID, "write");
+        write.annotate(Override.class);
+        write._throws(IOException.class);
+        JVar out = write.param(JsonWriter.class, "out");
+        JVar value = write.param(arrayType, "value");
+        JBlock writeBody = write.body();
+        JBlock ifNull = writeBody._if(value.eq(JExpr._null()))._then();
+        ifNull.add(out.invoke("nullValue"));
+        ifNull._return();
+        writeBody.add(out.invoke("beginArray"));
+        JForEach items = writeBody.forEach(component, "item", value);
+        items.body().add(out.invoke("value").arg(writablePrimitive(component, items.var())));
+        writeBody.add(out.invoke("endArray"));
+
+        // read
+        JMethod read = adapter.method(JMod.PUBLIC, arrayType, "read");
+        read.annotate(Override.class);
+        read._throws(IOException.class);
+        JVar in = read.param(JsonReader.class, "in");
+        JBlock readBody = read.body();
+        returnNullOnNull(readBody, in);
+        JVar array = readBody.decl(arrayType, "array", JExpr.newArray(component, 16));
+        JVar size = readBody.decl(model.INT, "size", JExpr.lit(0));
+        readBody.add(in.invoke("beginArray"));
+        JBlock loop = readBody._while(in.invoke("hasNext")).body();
+        loop._if(size.eq(array.ref("length")))._then()
+            .assign(array, model.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size.mul(JExpr.lit(2))));
+        loop.assign(array.component(size.incr()), readPrimitive(component, in));
+        readBody.add(in.invoke("endArray"));
+        readBody._return(model.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size));
+        return adapter;
+    }
+
+    /**
+     * 生成读取一个基本类型值的表达式；JsonReader 没有 short 和 float 的读取方法，由 int 和 double 转换。
+     */
+    private JExpression readPrimitive(JType component, JVar in) {
+        switch (component.name()) {
+            case "short":
+                return JExpr.cast(component, in.invoke("nextInt"));
+            case "float":
+                return JExpr.cast(component, in.invoke("nextDouble"));
+            default:
+                String name = component.name();
+                return in.invoke("next" + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        }
+    }
+
+    /**
+     * 生成传给 JsonWriter.value 的基本类型值；JsonWriter 没有 value(float)，float 经由 Number 写出以保留其最短的十进制表示。
+     */
+    private JExpression writablePrimitive(JType type, JExpression value) {
+        return type.name().equals("float") ? model.ref(Float.class).staticInvoke("valueOf").arg(value) : value;
+    }
+
+    /**
+     * 生成 if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+     */
+    private void returnNullOnNull(JBlock body, JVar in) {
+        JBlock ifNull = body._if(in.invoke("peek").eq(model.ref(JsonToken.class).staticRef("NULL")))._then();
+        ifNull.add(in.invoke("nextNull"));
+        ifNull._return(JExpr._null());
+    }
+}
@@ -0,0 +1,352 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.codemodel.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 为生成的类生成基于 Jackson 流式 API 的 JsonDeserializer 和 JsonSerializer。
+ * <p>
+ * 每个类中生成静态内部类 JacksonDeserializer 和 JacksonSerializer，并通过 @JsonDeserialize 和
+ * @JsonSerialize 注解注册到类上。反序列化器直接在 {@link JsonParser} 的 token 上按属性名 switch 赋值，
+ * 未知属性用 {@link JsonParser#skipChildren()} 跳过；序列化器直接调用 {@link JsonGenerator}。
+ * 嵌套的生成类直接调用彼此的静态方法，不经过 databind 的 Bean 内省和序列化器查找；基本类型数组直接读写元素，
+ * 读取时按需扩容数组，不装箱元素。不可变的类的属性先读入局部变量，最后调用接收所有字段的构造器。
+ * </p>
+ * <p>
+ * 生成的代码依赖 jackson-databind，其中的类按名称引用，生成时不需要加载它们。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 18:21:40
+ */
+final class JacksonSerializers {
+    private static final String DESERIALIZER_NAME = "JacksonDeserializer";
+    private static final String SERIALIZER_NAME = "JacksonSerializer";
+
+    private final JCodeModel model;
+    private final JClass jsonToken;
+    private final JClass context;
+    private final JClass provider;
+    /**
+     * 生成的类是否不可变，只能通过构造器创建
+     */
+    private final boolean immutable;
+    /**
+     * 生成的类映射其反序列化器和序列化器，按需创建，使字段可以引用尚未生成方法的类
+     */
+    private final Map<JDefinedClass, JDefinedClass> deserializers = new HashMap<>();
+    private final Map<JDefinedClass, JDefinedClass> serializers = new HashMap<>();
+    /**
+     * 当前方法中局部变量名的序号
+     */
+    private int locals;
+
+    /**
+     * 构造器
+     *
+     * @param model     生成类的代码模型
+     * @param immutable 生成的类是否不可变
+     */
+    JacksonSerializers(JCodeModel model, boolean immutable) {
+        this.model = model;
+        this.immutable = immutable;
+        jsonToken = model.ref(JsonToken.class);
+        context = model.ref("com.fasterxml.jackson.databind.DeserializationContext");
+        provider = model.ref("com.fasterxml.jackson.databind.SerializerProvider");
+    }
+
+    /**
+     * 为一个类生成反序列化器和序列化器，并将它们注册到类上。
+     *
+     * @param clazz  生成的类
+     * @param fields 类中生成的字段
+     * @throws JClassAlreadyExistsException 类中已有同名的内部类
+     */
+    void add(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields) throws JClassAlreadyExistsException {
+        JDefinedClass deserializer = deserializerOf(clazz);
+        JDefinedClass serializer = serializerOf(clazz);
+        clazz.annotate(model.ref("com.fasterxml.jackson.databind.annotation.JsonDeserialize"))
+            .param("using", deserializer);
+        clazz.annotate(model.ref("com.fasterxml.jackson.databind.annotation.JsonSerialize"))
+            .param("using", serializer);
+
+        createDeserializer(deserializer, clazz, fields);
+        createSerializer(serializer, clazz, fields);
+    }
+
+    private JDefinedClass deserializerOf(JDefinedClass clazz) throws JClassAlreadyExistsException {
+        JDefinedClass deserializer = deserializers.get(clazz);
+        if (deserializer == null) {
+            deserializer = clazz._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, DESERIALIZER_NAME);
+            deserializer._extends(model.ref("com.fasterxml.jackson.databind.deser.std.StdDeserializer").narrow(clazz));
+            deserializers.put(clazz, deserializer);
+        }
+        return deserializer;
+    }
+
+    private JDefinedClass serializerOf(JDefinedClass clazz) throws JClassAlreadyExistsException {
+        JDefinedClass serializer = serializers.get(clazz);
+        if (serializer == null) {
+            serializer = clazz._class(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, SERIALIZER_NAME);
+            serializer._extends(model.ref("com.fasterxml.jackson.databind.ser.std.StdSerializer").narrow(clazz));
+            serializers.put(clazz, serializer);
+        }
+        return serializer;
+    }
+
+    /**
+     * 生成反序列化器：deserialize 委托给静态的 read 方法，嵌套的类可以直接调用。
+     */
+    private void createDeserializer(JDefinedClass deserializer, JDefinedClass clazz,
+        List<GenerateObject.GeneratedField> fields) throws JClassAlreadyExistsException {
+        deserializer.constructor(JMod.PUBLIC).body().invoke("super").arg(clazz.dotclass());
+
+        JMethod read = deserializer.method(JMod.PUBLIC | JMod.STATIC, clazz, "read");
+        read._throws(IOException.class);
+        read.javadoc().add("Reads an instance from the current token of the parser, which is left at the END_OBJECT.");
+        JVar p = read.param(JsonParser.class, "p");
+        JVar ctxt = read.param(context, "ctxt");
+
+        JMethod deserialize = deserializer.method(JMod.PUBLIC, clazz, "deserialize");
+        deserialize.annotate(Override.class);
+        deserialize._throws(IOException.class);
+        JVar deserializeP = deserialize.param(JsonParser.class, "p");
+        JVar deserializeCtxt = deserialize.param(context, "ctxt");
+        deserialize.body()._return(deserializer.staticInvoke(read).arg(deserializeP).arg(deserializeCtxt));
+
+        locals = 0;
+        JBlock body = read.body();
+        JVar token = body.decl(jsonToken, "token", p.invoke("currentToken"));
+        body._if(token.eq(token("VALUE_NULL")))._then()._return(JExpr._null());
+        body._if(token.eq(token("START_OBJECT")))._then().assign(token, p.invoke("nextToken"));
+        body._if(token.ne(token("FIELD_NAME")).cand(token.ne(token("END_OBJECT"))))._then()
+            ._return(JExpr.cast(clazz, ctxt.invoke("handleUnexpectedToken").arg(clazz.dotclass()).arg(p)));
+
+        JVar result = immutable ? null : body.decl(clazz, "result", JExpr._new(clazz));
+        List<JVar> values = new ArrayList<>(fields.size());
+        if (immutable) {
+            for (GenerateObject.GeneratedField field : fields) {
+                JType type = field.Field.type();
+                values.add(body.decl(type, field.Field.name() + "Value", ValueClasses.defaultValue(type)));
+            }
+        }
+        JBlock loop = body._while(token.eq(token("FIELD_NAME"))).body();
+        JVar name = loop.decl(model.ref(String.class), "name", p.invoke("currentName"));
+        loop.add(p.invoke("nextToken"));
+        JSwitch names = loop._switch(name);
+        for (int i = 0; i < fields.size(); i++) {
+            GenerateObject.GeneratedField field = fields.get(i);
+            JBlock property = names._case(JExpr.lit(field.Info.PropertyName)).body();
+            JType type = field.Field.type();
+            JAssignmentTarget target = immutable ? values.get(i) : result.ref(field.Field);
+            // 与 databind 一致，基本类型的字段遇到 null 时保留默认值
+            JBlock assign = type.isPrimitive()
+                ? property._if(p.invoke("currentToken").ne(token("VALUE_NULL")))._then() : property;
+            assign.assign(target, readValue(assign, type, p, ctxt));
+            property._break();
+        }
+        names._default().body().add(p.invoke("skipChildren"));
+        loop.assign(token, p.invoke("nextToken"));
+        body._return(immutable ? ValueClasses.construct(clazz, values) : result);
+    }
+
+    /**
+     * 生成读取当前值的表达式，列表需要的语句添加到给定的块中。
+     */
+    private JExpression readValue(JBlock block, JType type, JVar p, JVar ctxt) throws JClassAlreadyExistsException {
+        JExpression isNull = p.invoke("currentToken").eq(token("VALUE_NULL"));
+        if (type.isArray() && type.elementType().isPrimitive()) {
+            return readPrimitiveArray(block, type, p, isNull);
+        }
+        String name = type.boxify().erasure().fullName();
+        if (isGenerated(type)) {
+            return deserializerOf((JDefinedClass)type).staticInvoke("read").arg(p).arg(ctxt);
+        } else if (name.equals(String.class.getName())) {
+            // getValueAsString 在对象或数组上返回 null 且不移动解析器，与 databind 一样按类型不匹配处理
+            JClass string = model.ref(String.class);
+            return JOp.cond(p.invoke("currentToken").invoke("isStructStart"),
+                JExpr.cast(string, ctxt.invoke("handleUnexpectedToken").arg(string.dotclass()).arg(p)),
+                p.invoke("getValueAsString"));
+        } else if (name.equals(Long.class.getName())) {
+            return nullable(type, isNull, p.invoke("getLongValue"));
+        } else if (name.equals(Integer.class.getName())) {
+            return nullable(type, isNull, p.invoke("getIntValue"));
+        } else if (name.equals(Short.class.getName())) {
+            return nullable(type, isNull, p.invoke("getShortValue"));
+        } else if (name.equals(Double.class.getName())) {
+            return nullable(type, isNull, p.invoke("getDoubleValue"));
+        } else if (name.equals(Float.class.getName())) {
+            return nullable(type, isNull, p.invoke("getFloatValue"));
+        } else if (name.equals(BigInteger.class.getName())) {
+            return nullable(type, isNull, p.invoke("getBigIntegerValue"));
+        } else if (name.equals(BigDecimal.class.getName())) {
+            return nullable(type, isNull, p.invoke("getDecimalValue"));
+        } else if (name.equals(Boolean.class.getName())) {
+            return nullable(type, isNull, p.invoke("getBooleanValue"));
+        } else if (name.equals(List.class.getName())) {
+            JClass element = ((JClass)type).getTypeParameters().get(0);
+            JVar list = block.decl(type, "list" + ++locals, JExpr._null());
+            JBlock notNull = block._if(isNull.not())._then();
+            notNull.assign(list, JExpr._new(model.ref(ArrayList.class).narrow(element)));
+            JBlock items = notNull._while(p.invoke("nextToken").ne(token("END_ARRAY"))).body();
+            items.add(list.invoke("add").arg(readValue(items, element, p, ctxt)));
+            return list;
+        }
+        return ctxt.invoke("readValue").arg(p).arg(type.boxify().erasure().dotclass());
+    }
+
+    /**
+     * 生成读取基本类型数组的语句：按需扩容数组，最后截断到元素数量。null 元素按 getValueAsXxx 的约定读为默认值。
+     */
+    private JExpression readPrimitiveArray(JBlock block, JType type, JVar p, JExpression isNull) {
+        JType component = type.elementType();
+        String name = component.name();
+        int local = ++locals;
+        JVar array = block.decl(type, "array" + local, JExpr._null());
+        JBlock notNull = block._if(isNull.not())._then();
+        notNull.assign(array, JExpr.newArray(component, 16));
+        JVar size = notNull.decl(model.INT, "size" + local, JExpr.lit(0));
+        JBlock items = notNull._while(p.invoke("nextToken").ne(token("END_ARRAY"))).body();
+        items._if(size.eq(array.ref("length")))._then()
+            .assign(array, model.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size.mul(JExpr.lit(2))));
+        // JsonParser 没有 short 和 float 的 getValueAs 方法，由 int 和 double 转换
+        JExpression value;
+        if (name.equals("short")) {
+            value = JExpr.cast(component, p.invoke("getValueAsInt"));
+        } else if (name.equals("float")) {
+            value = JExpr.cast(component, p.invoke("getValueAsDouble"));
+        } else {
+            value = p.invoke("getValueAs" + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        }
+        items.assign(array.component(size.incr()), value);
+        notNull.assign(array, model.ref(Arrays.class).staticInvoke("copyOf").arg(array).arg(size));
+        return array;
+    }
+
+    /**
+     * 包装类型在值为 null 时读为 null，基本类型直接读取。
+     */
+    private JExpression nullable(JType type, JExpression isNull, JExpression value) {
+        return type.isPrimitive() ? value : JOp.cond(isNull, JExpr._null(), value);
+    }
+
+    /**
+     * 生成序列化器：serialize 委托给静态的 write 方法，嵌套的类可以直接调用。
+     */
+    private void createSerializer(JDefinedClass serializer, JDefinedClass clazz,
+        List<GenerateObject.GeneratedField> fields) throws JClassAlreadyExistsException {
+        serializer.constructor(JMod.PUBLIC).body().invoke("super").arg(clazz.dotclass());
+
+        JMethod write = serializer.method(JMod.PUBLIC | JMod.STATIC, model.VOID, "write");
+        write._throws(IOException.class);
+        write.javadoc().add("Writes an instance, or null, to the generator.");
+        JVar value = write.param(clazz, "value");
+        JVar gen = write.param(JsonGenerator.class, "gen");
+        JVar serializerProvider = write.param(provider, "provider");
+
+        JMethod serialize = serializer.method(JMod.PUBLIC, model.VOID, "serialize");
+        serialize.annotate(Override.class);
+        serialize._throws(IOException.class);
+        JVar serializeValue = serialize.param(clazz, "value");
+        JVar serializeGen = serialize.param(JsonGenerator.class, "gen");
+        JVar serializeProvider = serialize.param(provider, "provider");
+        serialize.body().add(serializer.staticInvoke(write).arg(serializeValue).arg(serializeGen).arg(serializeProvider));
+
+        locals = 0;
+        JBlock body = write.body();
+        JBlock ifNull = body._if(value.eq(JExpr._null()))._then();
+        ifNull.add(gen.invoke("writeNull"));
+        ifNull._return();
+
+        body.add(gen.invoke("writeStartObject"));
+        for (GenerateObject.GeneratedField field : fields) {
+            body.add(gen.invoke("writeFieldName").arg(JExpr.lit(field.Info.PropertyName)));
+            writeValue(body, field.Field.type(), value.ref(field.Field), gen, serializerProvider);
+        }
+        body.add(gen.invoke("writeEndObject"));
+    }
+
+    /**
+     * 生成写入一个值的语句。
+     */
+    private void writeValue(JBlock block, JType type, JExpression value, JVar gen, JVar serializerProvider)
+        throws JClassAlreadyExistsException {
+        if (type.isArray() && type.elementType().isPrimitive()) {
+            JConditional ifNull = block._if(value.eq(JExpr._null()));
+            ifNull._then().add(gen.invoke("writeNull"));
+            JBlock notNull = ifNull._else();
+            notNull.add(gen.invoke("writeStartArray"));
+            JForEach items = notNull.forEach(type.elementType(), "item" + ++locals, value);
+            writeValue(items.body(), type.elementType(), items.var(), gen, serializerProvider);
+            notNull.add(gen.invoke("writeEndArray"));
+            return;
+        }
+        String name = type.boxify().erasure().fullName();
+        if (isGenerated(type)) {
+            block.add(serializerOf((JDefinedClass)type).staticInvoke("write").arg(value).arg(gen).arg(serializerProvider));
+        } else if (name.equals(String.class.getName())) {
+            block.add(gen.invoke("writeString").arg(value));
+        } else if (name.equals(Long.class.getName())) {
+            writeNullable(block, type, value, gen, "writeNumber", "longValue");
+        } else if (name.equals(Integer.class.getName())) {
+            writeNullable(block, type, value, gen, "writeNumber", "intValue");
+        } else if (name.equals(Short.class.getName())) {
+            writeNullable(block, type, value, gen, "writeNumber", "shortValue");
+        } else if (name.equals(Double.class.getName())) {
+            writeNullable(block, type, value, gen, "writeNumber", "doubleValue");
+        } else if (name.equals(Float.class.getName())) {
+            writeNullable(block, type, value, gen, "writeNumber", "floatValue");
+        } else if (name.equals(BigInteger.class.getName()) || name.equals(BigDecimal.class.getName())) {
+            // writeNumber 对 null 写出 null
+            block.add(gen.invoke("writeNumber").arg(value));
+        } else if (name.equals(Boolean.class.getName())) {
+            writeNullable(block, type, value, gen, "writeBoolean", "booleanValue");
+        } else if (name.equals(List.class.getName())) {
+            JClass element = ((JClass)type).getTypeParameters().get(0);
+            JConditional ifNull = block._if(value.eq(JExpr._null()));
+            ifNull._then().add(gen.invoke("writeNull"));
+            JBlock notNull = ifNull._else();
+            notNull.add(gen.invoke("writeStartArray"));
+            JForEach items = notNull.forEach(element, "item" + ++locals, value);
+            writeValue(items.body(), element, items.var(), gen, serializerProvider);
+            notNull.add(gen.invoke("writeEndArray"));
+        } else {
+            block.add(serializerProvider.invoke("defaultSerializeValue").arg(value).arg(gen));
+        }
+    }
+
+    /**
+     * 基本类型直接写入；包装类型为 null 时写入 null，否则拆箱后写入。
+     */
+    private void writeNullable(JBlock block, JType type, JExpression value, JVar gen, String method, String unbox) {
+        if (type.isPrimitive()) {
+            block.add(gen.invoke(method).arg(value));
+            return;
+        }
+        JConditional ifNull = block._if(value.eq(JExpr._null()));
+        ifNull._then().add(gen.invoke("writeNull"));
+        ifNull._else().add(gen.invoke(method).arg(value.invoke(unbox)));
+    }
+
+    /**
+     * @return 如果类型是本次生成的类；生成的枚举由 databind 按常量上的 @JsonProperty 读写
+     */
+    private static boolean isGenerated(JType type) {
+        return type instanceof JDefinedClass && ((JDefinedClass)type).getClassType() == ClassType.CLASS;
+    }
+
+    private JExpression token(String name) {
+        return jsonToken.staticRef(name);
+    }
+}
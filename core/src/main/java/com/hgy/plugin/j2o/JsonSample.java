@@ -0,0 +1,155 @@
+package com.hgy.plugin.j2o;
+
+import com.hgy.plugin.inspired.Inflector;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 构建时生成使用的一个 JSON 样本文件。
+ * <p>
+ * 每个样本生成到以样本文件名命名的子包中，根类名与插件中从文件生成时的默认类名相同，
+ * 因此同一个样本无论在命令行还是构建中生成，结果都相同。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 17:05:31
+ */
+public final class JsonSample {
+    private final Path file;
+    private final boolean jsonLines;
+    private final String packageName;
+    private final String className;
+
+    private JsonSample(Path file, boolean jsonLines, String packageName, String className) {
+        this.file = file;
+        this.jsonLines = jsonLines;
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    /**
+     * @param file        样本文件
+     * @param basePackage 所有样本的基础包名，可以为空
+     * @return 样本，不是 .json、.jsonl 或 .ndjson 文件时为 null
+     */
+    public static JsonSample of(Path file, String basePackage) {
+        String fileName = file.getFileName().toString();
+        String extension = extension(fileName);
+        if (extension == null) {
+            return null;
+        }
+
+        String baseName = fileName.substring(0, fileName.length() - extension.length() - 1);
+        String segment = packageSegment(baseName);
+        String packageName = basePackage.isEmpty() ? segment : basePackage + "." + segment;
+        String className = GenerateObject.formatClassName(Inflector.getInstance().singularize(baseName));
+        return new JsonSample(file, !"json".equals(extension), packageName, className);
+    }
+
+    /**
+     * 查找目录中的所有样本。
+     *
+     * @param directory   样本目录
+     * @param basePackage 所有样本的基础包名，可以为空
+     * @return 按路径排序的样本
+     * @throws IOException 读取样本目录失败
+     * @throws IllegalArgumentException 两个样本映射到同一个包
+     */
+    public static List<JsonSample> findAll(Path directory, String basePackage) throws IOException {
+        List<JsonSample> samples;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            samples = paths.filter(Files::isRegularFile).sorted().map(path -> of(path, basePackage))
+                .filter(Objects::nonNull).collect(Collectors.toList());
+        }
+
+        Map<String, Path> packages = new HashMap<>();
+        for (JsonSample sample : samples) {
+            Path previous = packages.putIfAbsent(sample.packageName, sample.file);
+            if (previous != null) {
+                throw new IllegalArgumentException("samples " + previous + " and " + sample.file +
+                    " would both generate into package " + sample.packageName);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * 生成该样本的所有类。
+     *
+     * @param generateObject 生成到 {@link #getPackageName()} 中的生成器
+     * @param options        生成选项
+     * @return 渲染出的源文件
+     * @throws Exception 读取、解析或生成失败
+     */
+    public GeneratedSources generate(GenerateObject generateObject, GenerateOptions options) throws Exception {
+        return jsonLines ? generateObject.generateFromJsonLines(className, file, options) :
+            generateObject.generateFromJsonFile(className, file, options);
+    }
+
+    /**
+     * @return 样本文件
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return 生成的类所在的包
+     */
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * @return 根类名
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @param sourceRoot 源根目录
+     * @return 该样本的包在源根中的目录
+     */
+    public Path packageDirectory(Path sourceRoot) {
+        return sourceRoot.resolve(packageName.replace('.', '/'));
+    }
+
+    /**
+     * @return 小写的 json、jsonl 或 ndjson 扩展名，其他文件为 null
+     */
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return "json".equals(extension) || "jsonl".equals(extension) || "ndjson".equals(extension) ? extension :
+            null;
+    }
+
+    /**
+     * 将样本文件名转换为合法的小写包名片段。
+     */
+    private static String packageSegment(String name) {
+        StringBuilder segment = new StringBuilder(name.length() + 1);
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            segment.append(c < 128 && Character.isLetterOrDigit(c) || c == '_' ? c : '_');
+        }
+        if (segment.length() == 0 || Character.isDigit(segment.charAt(0)) || SourceVersion.isKeyword(segment)) {
+            segment.insert(0, '_');
+        }
+        return segment.toString();
+    }
+}
@@ -0,0 +1,548 @@
+package com.hgy.plugin.j2o;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON 值的紧凑形状模型。
+ * <p>
+ * 同一位置上观察到的所有值都合并到同一个形状中：只记录出现过的值类型、对象的属性形状以及数组的元素形状，
+ * 因此占用的内存只随不同结构的数量增长，而与文档大小无关。
+ * </p>
+ * <p>
+ * 形状还记录观察到的值和对象的数量，属性形状的值数量等于包含该属性的对象数量，
+ * 由此可以判断属性是否在每个对象中都出现。
+ * </p>
+ * <p>
+ * 对于数值，形状记录整数的取值范围，以及所有数值的有效数字位数和十进制指数范围，用于选择能安全容纳
+ * 所有观察值的最窄类型。对于字符串，形状记录不超过 {@value #ENUM_LIMIT} 个不同的短字符串值，用于生成枚举。
+ * </p>
+ * <p>
+ * 形状的读取和合并只在生成核心内部进行，包外只能把 {@link PreviewInference} 推断出的形状交给
+ * {@link GenerateObject#generateModel(JsonShape, String, GenerateOptions)}。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 09:12:41
+ */
+public final class JsonShape {
+    static final int NULL = 1;
+    static final int BOOLEAN = 1 << 1;
+    static final int INTEGER = 1 << 2;
+    static final int FLOAT = 1 << 3;
+    static final int STRING = 1 << 4;
+    static final int OBJECT = 1 << 5;
+    static final int ARRAY = 1 << 6;
+    /**
+     * 观察到互不兼容的标量类型，只能用 {@link Object} 表示
+     */
+    static final int MIXED = 1 << 7;
+
+    /**
+     * float 保证可以精确往返的十进制有效数字位数
+     */
+    private static final int FLOAT_DIGITS = 6;
+    /**
+     * float 和 double 的正规数所能容纳的十进制指数范围（取保守值）
+     */
+    private static final int FLOAT_EXPONENT = 37;
+    private static final int DOUBLE_EXPONENT = 307;
+    /**
+     * 记录的不同字符串值的最大数量
+     */
+    static final int ENUM_LIMIT = 16;
+    /**
+     * 可以作为枚举值的字符串的最大长度
+     */
+    private static final int ENUM_VALUE_LENGTH = 32;
+
+    /**
+     * 观察到的值类型位集
+     */
+    private int kinds;
+    /**
+     * 观察到的值的数量
+     */
+    private long values;
+    /**
+     * 观察到的对象的数量
+     */
+    private long objects;
+    /**
+     * 观察到的 long 范围内整数的最小值和最大值，没有观察到时最小值大于最大值
+     */
+    private long minInteger = Long.MAX_VALUE;
+    private long maxInteger = Long.MIN_VALUE;
+    /**
+     * 观察到超出 long 范围的整数
+     */
+    private boolean bigInteger;
+    /**
+     * 观察到的数值中最多的有效数字位数（不含末尾的零）
+     */
+    private int maxDigits;
+    /**
+     * 非零数值最高有效位的十进制指数的最小值和最大值，没有观察到时最小值大于最大值
+     */
+    private int minExponent = Integer.MAX_VALUE;
+    private int maxExponent = Integer.MIN_VALUE;
+    /**
+     * 观察到的字符串的数量
+     */
+    private long stringCount;
+    /**
+     * 观察到的不同字符串值，按首次出现的顺序保存；没有观察到字符串时为 null
+     */
+    private List<String> strings;
+    /**
+     * 不同的字符串值超过 {@link #ENUM_LIMIT} 个，或观察到过长的字符串，不再记录字符串值
+     */
+    private boolean manyStrings;
+    /**
+     * 对象的属性形状，按首次出现的顺序保存
+     */
+    private Map<String, JsonShape> properties;
+    /**
+     * 数组的元素形状，没有观察到任何元素时为 null
+     */
+    private JsonShape element;
+
+    /**
+     * 记录一次观察到的值类型。
+     *
+     * @param kind 值类型
+     */
+    void observe(int kind) {
+        kinds |= kind;
+        values++;
+        if (kind == OBJECT) {
+            objects++;
+        } else if (kind == STRING) {
+            stringCount++;
+        }
+    }
+
+    /**
+     * @return 如果仍在记录字符串值；为 false 时只需调用 {@link #observe(int)}，不必解码字符串
+     */
+    boolean isCollectingStrings() {
+        return !manyStrings;
+    }
+
+    /**
+     * 记录一个字符串。只在值尚未记录时分配新的字符串。
+     *
+     * @param text   字符缓冲
+     * @param offset 字符串的起始位置
+     * @param length 字符串的长度
+     */
+    void observeString(char[] text, int offset, int length) {
+        observe(STRING);
+        if (manyStrings) {
+            return;
+        }
+        if (length > ENUM_VALUE_LENGTH) {
+            tooManyStrings();
+            return;
+        }
+        if (strings == null) {
+            strings = new ArrayList<>(4);
+        }
+        for (String value : strings) {
+            if (contentEquals(value, text, offset, length)) {
+                return;
+            }
+        }
+        if (strings.size() == ENUM_LIMIT) {
+            tooManyStrings();
+            return;
+        }
+        strings.add(new String(text, offset, length));
+    }
+
+    private void tooManyStrings() {
+        manyStrings = true;
+        strings = null;
+    }
+
+    private static boolean contentEquals(String value, char[] text, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录一个 long 范围内的整数。
+     *
+     * @param value 整数值
+     */
+    void observeInteger(long value) {
+        observe(INTEGER);
+        minInteger = Math.min(minInteger, value);
+        maxInteger = Math.max(maxInteger, value);
+        if (value == 0) {
+            return;
+        }
+
+        // 在负数上计算，Long.MIN_VALUE 也不会溢出
+        long negative = value > 0 ? -value : value;
+        int trailingZeros = 0;
+        while (negative % 10 == 0) {
+            negative /= 10;
+            trailingZeros++;
+        }
+        int digits = 0;
+        while (negative != 0) {
+            negative /= 10;
+            digits++;
+        }
+        observeDigits(digits, digits + trailingZeros - 1);
+    }
+
+    /**
+     * 记录一个超出 long 范围的整数。
+     *
+     * @param text   字符缓冲
+     * @param offset 数值文本的起始位置
+     * @param length 数值文本的长度
+     */
+    void observeBigInteger(char[] text, int offset, int length) {
+        observe(INTEGER);
+        bigInteger = true;
+        observeNumberText(text, offset, length);
+    }
+
+    /**
+     * 记录一个浮点数。
+     *
+     * @param text   字符缓冲
+     * @param offset 数值文本的起始位置
+     * @param length 数值文本的长度
+     */
+    void observeFloat(char[] text, int offset, int length) {
+        observe(FLOAT);
+        observeNumberText(text, offset, length);
+    }
+
+    /**
+     * 从 JSON 数值文本中求出有效数字位数和最高有效位的十进制指数，不解析数值本身。
+     */
+    private void observeNumberText(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            i++;
+        }
+
+        // 尾数：整数部分的位数决定小数点位置，首个非零数字决定指数
+        int integerDigits = 0;
+        boolean fraction = false;
+        int position = 0;
+        int first = -1;
+        int last = -1;
+        for (; i < end; i++) {
+            char c = text[i];
+            if (c == '.') {
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                if (c != '0') {
+                    if (first < 0) {
+                        first = position;
+                    }
+                    last = position;
+                }
+                if (!fraction) {
+                    integerDigits++;
+                }
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (first < 0) {
+            // 零没有指数，也不限制精度
+            return;
+        }
+
+        // 指数部分，过大的指数截断，只需要判断是否超出范围
+        long exponent = 0;
+        if (i < end && (text[i] == 'e' || text[i] == 'E')) {
+            i++;
+            boolean negative = i < end && text[i] == '-';
+            if (i < end && (text[i] == '-' || text[i] == '+')) {
+                i++;
+            }
+            for (; i < end; i++) {
+                exponent = Math.min(exponent * 10 + (text[i] - '0'), Integer.MAX_VALUE / 2);
+            }
+            if (negative) {
+                exponent = -exponent;
+            }
+        }
+        observeDigits(last - first + 1, (int)(integerDigits - 1 - first + exponent));
+    }
+
+    private void observeDigits(int digits, int exponent) {
+        maxDigits = Math.max(maxDigits, digits);
+        minExponent = Math.min(minExponent, exponent);
+        maxExponent = Math.max(maxExponent, exponent);
+    }
+
+    /**
+     * @param kind 值类型
+     * @return 如果观察到过该值类型，则为 true
+     */
+    boolean has(int kind) {
+        return (kinds & kind) != 0;
+    }
+
+    /**
+     * 求出该形状最终应生成的值类型。
+     * <p>
+     * null 不参与判断；对象和数组优先于标量（与原先取首个对象或数组元素的做法一致）；整数和浮点数合并为浮点数；
+     * 其余的标量冲突返回 {@link #MIXED}。
+     * </p>
+     *
+     * @return 单一的值类型
+     */
+    int kind() {
+        int nonNull = kinds & ~NULL;
+        if (nonNull == 0) {
+            return NULL;
+        }
+        if ((nonNull & OBJECT) != 0) {
+            return OBJECT;
+        }
+        if ((nonNull & ARRAY) != 0) {
+            return ARRAY;
+        }
+        if (nonNull == (INTEGER | FLOAT)) {
+            return FLOAT;
+        }
+        return Integer.bitCount(nonNull) == 1 ? nonNull : MIXED;
+    }
+
+    /**
+     * 将另一个形状合并到该形状中。合并满足结合律，分区推断得到的部分形状可以按任意分组合并；
+     * 按分区顺序合并时，属性顺序与顺序推断的结果相同。
+     * <p>
+     * 合并时会直接接管另一个形状的子形状，因此合并后不应再使用另一个形状。
+     * </p>
+     *
+     * @param other 要合并的形状
+     */
+    void merge(JsonShape other) {
+        kinds |= other.kinds;
+        values += other.values;
+        objects += other.objects;
+        minInteger = Math.min(minInteger, other.minInteger);
+        maxInteger = Math.max(maxInteger, other.maxInteger);
+        bigInteger |= other.bigInteger;
+        maxDigits = Math.max(maxDigits, other.maxDigits);
+        minExponent = Math.min(minExponent, other.minExponent);
+        maxExponent = Math.max(maxExponent, other.maxExponent);
+        stringCount += other.stringCount;
+        if (other.manyStrings) {
+            tooManyStrings();
+        } else if (!manyStrings && other.strings != null) {
+            if (strings == null) {
+                strings = new ArrayList<>(other.strings.size());
+            }
+            for (String value : other.strings) {
+                if (!strings.contains(value)) {
+                    strings.add(value);
+                }
+            }
+            if (strings.size() > ENUM_LIMIT) {
+                tooManyStrings();
+            }
+        }
+
+        // 合并属性
+        if (other.properties != null) {
+            if (properties == null) {
+                properties = new LinkedHashMap<>();
+            }
+            for (Map.Entry<String, JsonShape> entry : other.properties.entrySet()) {
+                JsonShape existing = properties.putIfAbsent(entry.getKey(), entry.getValue());
+                if (existing != null) {
+                    existing.merge(entry.getValue());
+                }
+            }
+        }
+
+        // 合并元素
+        if (other.element != null) {
+            if (element == null) {
+                element = other.element;
+            } else {
+                element.merge(other.element);
+            }
+        }
+    }
+
+    /**
+     * @return 该形状的深拷贝，合并到其他形状中时不会修改该形状
+     */
+    JsonShape copy() {
+        JsonShape copy = new JsonShape();
+        copy.kinds = kinds;
+        copy.values = values;
+        copy.objects = objects;
+        copy.minInteger = minInteger;
+        copy.maxInteger = maxInteger;
+        copy.bigInteger = bigInteger;
+        copy.maxDigits = maxDigits;
+        copy.minExponent = minExponent;
+        copy.maxExponent = maxExponent;
+        copy.stringCount = stringCount;
+        copy.strings = strings == null ? null : new ArrayList<>(strings);
+        copy.manyStrings = manyStrings;
+        if (properties != null) {
+            copy.properties = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonShape> entry : properties.entrySet()) {
+                copy.properties.put(entry.getKey(), entry.getValue().copy());
+            }
+        }
+        if (element != null) {
+            copy.element = element.copy();
+        }
+        return copy;
+    }
+
+    /**
+     * 获取属性形状，不存在时创建。
+     *
+     * @param name 属性名
+     * @return 属性形状
+     */
+    JsonShape property(String name) {
+        if (properties == null) {
+            properties = new LinkedHashMap<>();
+        }
+        return properties.computeIfAbsent(name, k -> new JsonShape());
+    }
+
+    /**
+     * @return 所有属性形状，没有属性时为空映射
+     */
+    Map<String, JsonShape> getProperties() {
+        return properties == null ? Collections.emptyMap() : properties;
+    }
+
+    /**
+     * 判断属性是否可以生成为基本类型：属性在每个观察到的对象中都出现、从未为 null，且其值类型为布尔、整数或浮点数。
+     *
+     * @param name 属性名
+     * @return 如果属性可以使用基本类型，则为 true
+     */
+    boolean isPrimitive(String name) {
+        JsonShape property = getProperties().get(name);
+        return property != null && property.values >= objects && property.isPrimitiveValue();
+    }
+
+    /**
+     * @return 如果值类型为布尔、整数或浮点数且从未为 null，则为 true；用于判断数组元素能否使用基本类型
+     */
+    boolean isPrimitiveValue() {
+        int kind = kind();
+        return !has(NULL) && (kind == BOOLEAN || (kind == INTEGER || kind == FLOAT) && !isOverflow());
+    }
+
+    /**
+     * 为数值形状选择能容纳所有观察值的类型。
+     * <p>
+     * 超出 long 范围的整数使用 {@link BigInteger}；与浮点数混合，或指数超出 double 范围时使用 {@link BigDecimal}，
+     * 这与是否收窄无关。收窄时，整数的取值范围乘以安全系数后仍在 short 或 int 范围内时使用该类型；
+     * 浮点数的有效数字不超过 6 位、且指数加上安全系数的数量级后仍在 float 范围内时使用 float。
+     * </p>
+     *
+     * @param narrow 是否收窄到比 long 和 double 更窄的类型
+     * @param margin 安全系数，至少为 1；例如为 2 时，观察值的两倍也必须在所选类型的范围内
+     * @return 基本类型对应的 Class（如 int.class），或 BigInteger.class、BigDecimal.class；不是数值时为 null
+     */
+    Class<?> numberType(boolean narrow, double margin) {
+        int kind = kind();
+        if (kind == INTEGER) {
+            if (bigInteger) {
+                return BigInteger.class;
+            }
+            if (narrow && minInteger <= maxInteger) {
+                if (fits(Short.MIN_VALUE, Short.MAX_VALUE, margin)) {
+                    return short.class;
+                }
+                if (fits(Integer.MIN_VALUE, Integer.MAX_VALUE, margin)) {
+                    return int.class;
+                }
+            }
+            return long.class;
+        }
+        if (kind == FLOAT) {
+            if (isOverflow()) {
+                return BigDecimal.class;
+            }
+            int magnitude = (int)Math.ceil(Math.log10(margin));
+            if (narrow && maxDigits <= FLOAT_DIGITS
+                && (minExponent > maxExponent || maxExponent + magnitude <= FLOAT_EXPONENT
+                && minExponent - magnitude >= -FLOAT_EXPONENT)) {
+                return float.class;
+            }
+            return double.class;
+        }
+        return null;
+    }
+
+    /**
+     * 判断字符串形状能否生成为枚举：只观察到字符串（和 null），不同的值不超过 {@value #ENUM_LIMIT} 个且都足够短，
+     * 并且平均每个值至少出现两次，避免把只出现过一次的普通文本当作枚举。
+     *
+     * @return 按首次出现顺序排列的枚举值，不能生成枚举时为 null
+     */
+    List<String> enumValues() {
+        if (kind() != STRING || manyStrings || strings == null || stringCount < 2L * strings.size()) {
+            return null;
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    /**
+     * @return 如果数值超出 long（整数）或 double（浮点数）的范围
+     */
+    private boolean isOverflow() {
+        return bigInteger || maxExponent > DOUBLE_EXPONENT || minExponent < -DOUBLE_EXPONENT;
+    }
+
+    private boolean fits(long min, long max, double margin) {
+        return minInteger * margin >= min && maxInteger * margin <= max;
+    }
+
+    /**
+     * 获取元素形状，不存在时创建。
+     *
+     * @return 元素形状
+     */
+    JsonShape element() {
+        if (element == null) {
+            element = new JsonShape();
+        }
+        return element;
+    }
+
+    /**
+     * @return 元素形状，没有观察到任何元素时为 null
+     */
+    JsonShape getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hgy.plugin.j2o;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 通过内存映射按窗口顺序读取文件的输入流，文件内容直接交给解析器，不经过 String 或堆上的整块缓冲。
+ *
+ * @author hgy
+ * @since 2026-10-16 12:18:30
+ */
+final class MappedFileInputStream extends InputStream {
+    /**
+     * 每次映射的窗口大小
+     */
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    /**
+     * 当前窗口在文件中的起始位置
+     */
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    /**
+     * 构造器
+     *
+     * @param path 要读取的文件
+     * @throws IOException 打开文件失败
+     */
+    MappedFileInputStream(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextWindow()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextWindow()) {
+            return -1;
+        }
+        int count = Math.min(len, window.remaining());
+        window.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return (int)Math.min(Integer.MAX_VALUE, size - position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * @return 已读取的字节数
+     */
+    private long position() {
+        return window == null ? windowStart : windowStart + window.position();
+    }
+
+    /**
+     * 当前窗口读完时映射下一个窗口。
+     *
+     * @return 如果还有可读的字节，则为 true
+     * @throws IOException 映射失败
+     */
+    private boolean nextWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+
+        long position = position();
+        if (position >= size) {
+            return false;
+        }
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        return true;
+    }
+}
@@ -0,0 +1,520 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 为预览增量推断编辑中的 JSON 文本的形状。
+ * <p>
+ * 根对象的每个成员（或根数组的每个元素）按其在文本中的位置缓存推断出的形状。成员的值是对象或数组，
+ * 且其文本不少于分段阈值（默认 {@value #SEGMENT_THRESHOLD} 个字符）时，该值的成员也按位置缓存，并逐层向下，
+ * 因此 {@code {"data":[...]}} 中的大数组同样按元素缓存。缓存的最小单位是较大的值中的一个成员：
+ * 文本被编辑时，编辑位置之后的成员只平移位置，编辑落在某个被分段的值的括号之内时交给该值处理，
+ * 否则与编辑区域重叠或相邻的成员被丢弃；下一次推断只重新解析两个未受影响的成员之间的文本，
+ * 并只重新合并包含编辑位置的各层的形状。结构被破坏（例如根的括号被修改）时回退为完整解析。
+ * </p>
+ * <p>
+ * 被分段的值按其所有成员推断，数组采样只作用于未被分段的值。
+ * </p>
+ * <p>
+ * 该类不是线程安全的，编辑和推断必须按发生的顺序在同一个线程中调用。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 15:02:37
+ */
+public final class PreviewInference {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    /**
+     * 默认的分段阈值：文本不少于该字符数的对象或数组，其成员也按位置缓存
+     */
+    static final int SEGMENT_THRESHOLD = 4096;
+
+    /**
+     * 推断读取的文本。增量推断只读取需要重新解析的区域，完整解析时才读取全部文本。
+     */
+    public interface Source {
+        /**
+         * @return 文本的长度
+         */
+        int length();
+
+        /**
+         * @param from 起始位置（含）
+         * @param to   结束位置（不含）
+         * @return 文本中的一段
+         */
+        String read(int from, int to);
+
+        /**
+         * @param text 完整的文本
+         * @return 读取给定字符串的文本
+         */
+        static Source of(String text) {
+            return new Source() {
+                @Override
+                public int length() {
+                    return text.length();
+                }
+
+                @Override
+                public String read(int from, int to) {
+                    return text.substring(from, to);
+                }
+            };
+        }
+    }
+
+    /**
+     * 被分段的对象或数组中的一个成员。
+     */
+    private static final class Member {
+        /**
+         * 属性名，所在的值为数组时为 null
+         */
+        final String name;
+        /**
+         * 成员在文本中的起始位置（含），对象成员从属性名开始
+         */
+        int start;
+        /**
+         * 成员在文本中的结束位置（不含）
+         */
+        int end;
+        /**
+         * 值的形状，值被分段时为 null
+         */
+        final JsonShape shape;
+        /**
+         * 被分段的值，未被分段时为 null
+         */
+        final Segment segment;
+
+        Member(String name, int start, int end, JsonShape shape, Segment segment) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.shape = shape;
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * 按成员缓存的对象或数组。
+     */
+    private static final class Segment {
+        /**
+         * {@link JsonShape#OBJECT} 或 {@link JsonShape#ARRAY}
+         */
+        final int kind;
+        /**
+         * 起始括号的位置
+         */
+        int start;
+        /**
+         * 结束括号之后的位置
+         */
+        int end;
+        /**
+         * 按位置排序的成员
+         */
+        final List<Member> members = new ArrayList<>();
+        /**
+         * 需要重新解析的区域，没有时 dirtyFrom 为 -1
+         */
+        int dirtyFrom = -1;
+        int dirtyTo;
+        /**
+         * 合并所有成员得到的形状，成员改变时清空
+         */
+        JsonShape shape;
+
+        Segment(int kind, int start) {
+            this.kind = kind;
+            this.start = start;
+        }
+    }
+
+    /**
+     * 成员内的数组采样策略
+     */
+    private final ArraySampling sampling;
+    /**
+     * 分段阈值
+     */
+    private final int threshold;
+    /**
+     * 根值的分段，根值是标量、文本为空或分段已失效时为 null
+     */
+    private Segment root;
+
+    /**
+     * @param sampling 成员内的数组采样策略
+     */
+    public PreviewInference(ArraySampling sampling) {
+        this(sampling, SEGMENT_THRESHOLD);
+    }
+
+    /**
+     * @param sampling  成员内的数组采样策略
+     * @param threshold 分段阈值：文本不少于该字符数的对象或数组，其成员也按位置缓存
+     */
+    PreviewInference(ArraySampling sampling, int threshold) {
+        this.sampling = sampling;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 记录一次文本编辑，平移之后的成员并丢弃被编辑的成员。
+     *
+     * @param offset   编辑的位置
+     * @param inserted 插入的字符数
+     * @param removed  删除的字符数
+     */
+    public void edit(int offset, int inserted, int removed) {
+        if (root == null) {
+            return;
+        }
+        // 修改根的括号或根值之后的内容时无法保留分段
+        if (!encloses(root, offset, offset + removed)) {
+            invalidate();
+            return;
+        }
+        edit(root, offset, inserted, removed);
+    }
+
+    /**
+     * 丢弃所有缓存的成员，下一次推断将完整解析文本。
+     */
+    public void invalidate() {
+        root = null;
+    }
+
+    /**
+     * 推断文本的形状，只重新解析自上次推断以来被编辑的区域。
+     *
+     * @param source        编辑后的文本，必须与已记录的编辑一致
+     * @param checkCanceled 取消检查，已取消时抛出非受检异常；取消不会破坏已缓存的成员
+     * @return 根值的形状，返回的形状不与缓存共享
+     * @throws IOException 文本不是格式良好的 JSON
+     */
+    public JsonShape infer(Source source, Runnable checkCanceled) throws IOException {
+        if (root == null || root.end > source.length() || !reparseDirty(root, source, checkCanceled)) {
+            parseAll(source, checkCanceled);
+        }
+        if (root == null) {
+            // 根值是标量或文本为空，不会生成任何类
+            JsonShape shape = new JsonShape();
+            shape.observe(JsonShape.NULL);
+            return shape;
+        }
+        return shapeOf(root, checkCanceled).copy();
+    }
+
+    /**
+     * 将编辑记录到被分段的值中：平移之后的成员，把括号内的编辑交给被分段的成员，
+     * 或丢弃被编辑的成员并记录需要重新解析的区域。
+     *
+     * @param segment  包含编辑的值，编辑不涉及其括号
+     * @param offset   编辑的位置
+     * @param inserted 插入的字符数
+     * @param removed  删除的字符数
+     */
+    private static void edit(Segment segment, int offset, int inserted, int removed) {
+        int editEnd = offset + removed;
+        int delta = inserted - removed;
+        segment.shape = null;
+
+        int from = offset;
+        int to = offset + inserted;
+        boolean delegated = false;
+        List<Member> members = segment.members;
+        for (int i = members.size() - 1; i >= 0; i--) {
+            Member member = members.get(i);
+            if (member.end < offset) {
+                break;
+            }
+            if (member.start > editEnd) {
+                move(member, delta);
+            } else if (member.segment != null && encloses(member.segment, offset, editEnd)) {
+                edit(member.segment, offset, inserted, removed);
+                member.end += delta;
+                delegated = true;
+            } else {
+                // 紧接在成员前后的编辑也会改变成员的值，例如数字
+                from = Math.min(from, shift(member.start, offset, editEnd, delta));
+                to = Math.max(to, shift(member.end, offset, editEnd, delta));
+                members.remove(i);
+            }
+        }
+        segment.end += delta;
+
+        if (segment.dirtyFrom >= 0) {
+            int dirtyFrom = shift(segment.dirtyFrom, offset, editEnd, delta);
+            int dirtyTo = shift(segment.dirtyTo, offset, editEnd, delta);
+            if (delegated) {
+                segment.dirtyFrom = dirtyFrom;
+                segment.dirtyTo = dirtyTo;
+                return;
+            }
+            from = Math.min(from, dirtyFrom);
+            to = Math.max(to, dirtyTo);
+        } else if (delegated) {
+            return;
+        }
+        segment.dirtyFrom = from;
+        segment.dirtyTo = to;
+    }
+
+    /**
+     * @return 编辑是否完全在值的括号之内
+     */
+    private static boolean encloses(Segment segment, int offset, int editEnd) {
+        return offset > segment.start && editEnd < segment.end;
+    }
+
+    /**
+     * 完整解析文本并重新分段。
+     *
+     * @param source        文本
+     * @param checkCanceled 取消检查
+     * @throws IOException 文本不是格式良好的 JSON
+     */
+    private void parseAll(Source source, Runnable checkCanceled) throws IOException {
+        invalidate();
+        String text = source.read(0, source.length());
+        try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+                if (token != null) {
+                    new ShapeReader(sampling, null).onCheckCanceled(checkCanceled).readCurrentValue(parser);
+                }
+                return;
+            }
+            root = readSegment(parser, 0, checkCanceled);
+        }
+    }
+
+    /**
+     * 重新解析值及其各层分段中被编辑的区域。
+     *
+     * @param segment       被分段的值
+     * @param source        文本
+     * @param checkCanceled 取消检查
+     * @return 如果所有区域都解析成功，则为 true；否则需要完整解析
+     */
+    private boolean reparseDirty(Segment segment, Source source, Runnable checkCanceled) throws IOException {
+        if (segment.dirtyFrom >= 0 && !reparseRegion(segment, source, checkCanceled)) {
+            return false;
+        }
+        for (Member member : segment.members) {
+            if (member.segment != null && !reparseDirty(member.segment, source, checkCanceled)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 重新解析被编辑的区域：即前后两个未受影响的成员之间的文本。区域被包在带有占位成员的括号中解析，
+     * 因此成员之间的逗号也会被检查。
+     *
+     * @param segment       包含被编辑区域的值
+     * @param source        文本
+     * @param checkCanceled 取消检查
+     * @return 如果区域解析成功，则为 true；否则需要完整解析
+     */
+    private boolean reparseRegion(Segment segment, Source source, Runnable checkCanceled) throws IOException {
+        List<Member> members = segment.members;
+
+        // 找到编辑区域前后未受影响的成员
+        int next = 0;
+        while (next < members.size() && members.get(next).start < segment.dirtyTo) {
+            next++;
+        }
+        int previous = next - 1;
+        while (previous >= 0 && members.get(previous).end > segment.dirtyFrom) {
+            previous--;
+        }
+        int regionFrom = previous < 0 ? segment.start + 1 : members.get(previous).end;
+        int regionTo = next == members.size() ? segment.end - 1 : members.get(next).start;
+
+        boolean object = segment.kind == JsonShape.OBJECT;
+        String placeholder = object ? "\"\":0" : "0";
+        String prefix = (object ? "{" : "[") + (previous < 0 ? "" : placeholder);
+        String suffix = (next == members.size() ? "" : placeholder) + (object ? "}" : "]");
+        String region = prefix + source.read(regionFrom, regionTo) + suffix;
+
+        List<Member> parsed;
+        try (JsonParser parser = JSON_FACTORY.createParser(region)) {
+            if (parser.nextToken() != (object ? JsonToken.START_OBJECT : JsonToken.START_ARRAY)) {
+                return false;
+            }
+            parsed = readMembers(parser, regionFrom - prefix.length(), checkCanceled);
+            // 区域中多出的括号会使值提前结束
+            if (parser.nextToken() != null) {
+                return false;
+            }
+        } catch (JsonParseException e) {
+            return false;
+        }
+
+        // 去掉占位成员
+        int first = previous < 0 ? 0 : 1;
+        int last = parsed.size() - (next == members.size() ? 0 : 1);
+        if (last < first) {
+            return false;
+        }
+        members.subList(previous + 1, next).clear();
+        members.addAll(previous + 1, parsed.subList(first, last));
+        segment.dirtyFrom = -1;
+        segment.shape = null;
+        return true;
+    }
+
+    /**
+     * 读取当前对象或数组并按成员分段。
+     *
+     * @param parser        位于起始括号上的解析器，返回时位于结束括号上
+     * @param base          解析的文本在完整文本中的偏移
+     * @param checkCanceled 取消检查
+     * @return 值的分段
+     * @throws IOException 读取或解析失败
+     */
+    private Segment readSegment(JsonParser parser, int base, Runnable checkCanceled) throws IOException {
+        int kind = parser.currentToken() == JsonToken.START_OBJECT ? JsonShape.OBJECT : JsonShape.ARRAY;
+        Segment segment = new Segment(kind, base + (int)parser.getTokenLocation().getCharOffset());
+        segment.members.addAll(readMembers(parser, base, checkCanceled));
+        segment.end = base + (int)parser.getCurrentLocation().getCharOffset();
+        return segment;
+    }
+
+    /**
+     * 读取当前对象或数组的所有成员并推断每个成员的形状。
+     * <p>
+     * 对象或数组成员的大小只有读完才知道，因此总是边读边分段，读完后文本小于分段阈值的再合并为一个形状，
+     * 每个值只解析一次。
+     * </p>
+     *
+     * @param parser        位于起始括号上的解析器，返回时位于结束括号上
+     * @param base          解析的文本在完整文本中的偏移
+     * @param checkCanceled 取消检查
+     * @return 读取的成员
+     * @throws IOException 读取或解析失败
+     */
+    private List<Member> readMembers(JsonParser parser, int base, Runnable checkCanceled) throws IOException {
+        List<Member> parsed = new ArrayList<>();
+        ShapeReader reader = new ShapeReader(sampling, null).onCheckCanceled(checkCanceled);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of input");
+            }
+            checkCanceled.run();
+            int start = base + (int)parser.getTokenLocation().getCharOffset();
+            String name = null;
+            if (token == JsonToken.FIELD_NAME) {
+                name = parser.getCurrentName();
+                parser.nextToken();
+            }
+            if (parser.currentToken().isStructStart()) {
+                Segment segment = readSegment(parser, base, checkCanceled);
+                if (segment.end - segment.start >= threshold) {
+                    parsed.add(new Member(name, start, segment.end, null, segment));
+                } else {
+                    parsed.add(new Member(name, start, segment.end, collapse(segment), null));
+                }
+            } else {
+                JsonShape shape = reader.readCurrentValue(parser);
+                // 字符串是惰性读取的，读完后当前位置才在结束引号之后
+                parser.finishToken();
+                parsed.add(new Member(name, start, base + (int)parser.getCurrentLocation().getCharOffset(), shape, null));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * 将较小的值的成员合并为一个形状，数组按采样策略只合并被采样的元素，与 {@link ShapeReader} 读取该值的结果相同。
+     * 成员的形状都是刚读取的，不被其他地方引用，因此直接参与合并。
+     *
+     * @param segment 刚读取的值的分段，其成员都未被分段
+     * @return 值的形状
+     */
+    private JsonShape collapse(Segment segment) {
+        JsonShape shape = new JsonShape();
+        shape.observe(segment.kind);
+        List<Member> members = segment.members;
+        if (segment.kind == JsonShape.OBJECT) {
+            for (Member member : members) {
+                shape.property(member.name).merge(member.shape);
+            }
+        } else {
+            if (sampling.getStrategy() == ArraySampling.Strategy.RESERVOIR) {
+                // 与 ShapeReader 相同，蓄水池采样的空数组也有元素形状
+                shape.element();
+            }
+            for (int index : ShapeReader.sampledIndices(sampling, members.size())) {
+                shape.element().merge(members.get(index).shape);
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * @param segment       被分段的值
+     * @param checkCanceled 取消检查
+     * @return 合并所有成员得到的形状，在成员改变前缓存，调用者不能修改
+     */
+    private static JsonShape shapeOf(Segment segment, Runnable checkCanceled) {
+        if (segment.shape == null) {
+            JsonShape shape = new JsonShape();
+            shape.observe(segment.kind);
+            for (Member member : segment.members) {
+                checkCanceled.run();
+                JsonShape target = member.name == null ? shape.element() : shape.property(member.name);
+                // 合并会接管另一个形状的子形状，缓存的形状只能以副本参与合并
+                JsonShape memberShape = member.segment == null ? member.shape : shapeOf(member.segment, checkCanceled);
+                target.merge(memberShape.copy());
+            }
+            segment.shape = shape;
+        }
+        return segment.shape;
+    }
+
+    /**
+     * 平移一个成员及其各层分段的位置。
+     */
+    private static void move(Member member, int delta) {
+        member.start += delta;
+        member.end += delta;
+        if (member.segment != null) {
+            Segment segment = member.segment;
+            segment.start += delta;
+            segment.end += delta;
+            if (segment.dirtyFrom >= 0) {
+                segment.dirtyFrom += delta;
+                segment.dirtyTo += delta;
+            }
+            for (Member child : segment.members) {
+                move(child, delta);
+            }
+        }
+    }
+
+    /**
+     * 将编辑前的位置映射到编辑后，被删除区域中的位置映射到编辑位置。
+     */
+    private static int shift(int position, int offset, int editEnd, int delta) {
+        if (position >= editEnd) {
+            return position + delta;
+        }
+        return Math.min(position, offset);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hgy.plugin.j2o;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 为对象形状分配规范编号（hash-consing）。
+ * <p>
+ * 两个对象形状的属性名集合相同、且每个属性生成的字段类型（包括是否为基本类型）相同时得到相同的编号，
+ * 与属性的出现顺序无关。
+ * 子对象先于父对象编号，父对象的规范键只引用子对象的编号，因此每个形状只被访问一次，键的长度只与属性数有关。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 15:41:19
+ */
+final class ShapeKeys {
+    /**
+     * 生成选项，决定哪些形状生成不同的字段类型
+     */
+    private final GenerateOptions options;
+    /**
+     * 规范键映射编号
+     */
+    private final Map<String, Integer> ids = new HashMap<>();
+    /**
+     * 已编号的形状
+     */
+    private final Map<JsonShape, Integer> shapeIds = new IdentityHashMap<>();
+
+    /**
+     * 构造器
+     *
+     * @param options 生成选项
+     */
+    ShapeKeys(GenerateOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * 获取对象形状的规范编号，结构相同的形状编号相同。
+     *
+     * @param shape 对象形状
+     * @return 规范编号
+     */
+    int idOf(JsonShape shape) {
+        Integer id = shapeIds.get(shape);
+        if (id == null) {
+            id = ids.computeIfAbsent(keyOf(shape), k -> ids.size());
+            shapeIds.put(shape, id);
+        }
+        return id;
+    }
+
+    /**
+     * 枚举值集合的规范键：排序后带长度前缀拼接，与值的出现顺序无关。取值集合相同的字符串字段共享一个枚举。
+     *
+     * @param values 枚举值
+     * @return 规范键
+     */
+    static String enumKey(List<String> values) {
+        List<String> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        StringBuilder key = new StringBuilder(sorted.size() * 8);
+        for (String value : sorted) {
+            key.append(value.length()).append(':').append(value);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 按属性名排序拼接每个属性的名称和字段类型。属性名带有长度前缀，描述符中不含分号，因此键没有歧义。
+     */
+    private String keyOf(JsonShape shape) {
+        Map<String, JsonShape> properties = shape.getProperties();
+        List<String> names = new ArrayList<>(properties.keySet());
+        Collections.sort(names);
+
+        StringBuilder key = new StringBuilder(names.size() * 16);
+        for (String name : names) {
+            key.append(name.length()).append(':').append(name);
+            appendDescriptor(key, properties.get(name));
+            if (shape.isPrimitive(name)) {
+                key.append('!');
+            }
+            key.append(';');
+        }
+        return key.toString();
+    }
+
+    /**
+     * 追加形状生成的字段类型的描述符，与 {@link GenerateObject} 选择字段类型的方式一致。
+     */
+    private void appendDescriptor(StringBuilder key, JsonShape shape) {
+        int kind = shape.kind();
+        if (kind == JsonShape.OBJECT) {
+            key.append('o').append(idOf(shape));
+        } else if (kind == JsonShape.ARRAY) {
+            key.append('a');
+            JsonShape element = shape.getElement();
+            if (element != null) {
+                appendDescriptor(key, element);
+                if (options.isPrimitiveArrays() && element.isPrimitiveValue()) {
+                    key.append('!');
+                }
+            }
+        } else {
+            key.append(kind);
+            Class<?> numberType = shape.numberType(options.isNarrowNumbers(), options.getNumberMargin());
+            if (numberType != null) {
+                key.append(numberType.getSimpleName());
+            }
+            List<String> enumValues = shape.enumValues();
+            if (options.isStringEnums() && enumValues != null) {
+                key.append('e').append(enumKey(enumValues));
+            }
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 直接在 Jackson 的 token 流上推断 {@link JsonShape}，不构建 JsonNode 树。
+ * <p>
+ * 指定 {@link ForkJoinPool} 时，大数组的元素会按批复制到 token 缓冲中，由线程池并行推断出部分形状，
+ * 再按顺序合并到元素形状中。token 流本身只能顺序读取，并行的是形状推断与合并。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 09:20:13
+ */
+final class ShapeReader {
+    /**
+     * 蓄水池采样的固定随机种子，保证同一份输入每次生成相同的结果
+     */
+    private static final long RESERVOIR_SEED = 0x4A324FL;
+    /**
+     * 每个并行分区包含的元素数量；不超过一个分区的数组在当前线程中直接推断
+     */
+    private static final int PARTITION_SIZE = 1024;
+    /**
+     * 每读取多少个值报告一次进度
+     */
+    private static final int PROGRESS_INTERVAL = 4096;
+    /**
+     * 每遍历多少个数组元素或记录报告一次进度，必须是 2 的幂。跳过、交给并行分区或复制到蓄水池的元素
+     * 不经过 {@link #readValue}，只能在这里报告
+     */
+    private static final int ELEMENT_PROGRESS_INTERVAL = 256;
+    /**
+     * 每读取或跳过多少个值检查一次是否已取消，必须是 2 的幂
+     */
+    private static final int CANCEL_INTERVAL = 1024;
+
+    /**
+     * 数组元素采样策略
+     */
+    private final ArraySampling sampling;
+    /**
+     * 并行推断使用的线程池，为 null 时顺序推断
+     */
+    private final ForkJoinPool pool;
+    /**
+     * 进度回调，参数为已读取的字节数；为 null 时不报告进度
+     */
+    private LongConsumer progress;
+    /**
+     * 取消检查，已取消时抛出异常；为 null 时不检查
+     */
+    private Runnable checkCanceled;
+    /**
+     * 当前线程中已推断的值的数量
+     */
+    private long values;
+    /**
+     * 并行分区中已推断的值的数量
+     */
+    private final LongAdder partitionValues = new LongAdder();
+
+    /**
+     * 构造器
+     *
+     * @param sampling 数组元素采样策略
+     * @param pool     并行推断使用的线程池，为 null 时顺序推断
+     */
+    ShapeReader(ArraySampling sampling, ForkJoinPool pool) {
+        this.sampling = sampling;
+        // 单线程时复制 token 只会增加开销
+        this.pool = pool != null && pool.getParallelism() > 1 ? pool : null;
+    }
+
+    /**
+     * 设置进度回调，读取过程中按值的数量和数组元素（或记录）的数量定期报告字节偏移。
+     * 只有直接读取输入的解析器才有字节偏移，并行分区中的缓冲 token 不会报告进度。
+     *
+     * @param progress 进度回调，参数为已读取的字节数
+     * @return 当前读取器
+     */
+    ShapeReader onProgress(LongConsumer progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * 设置取消检查，读取过程中（包括并行分区中）会定期调用，已取消时应抛出非受检异常以中止读取。
+     *
+     * @param checkCanceled 取消检查
+     * @return 当前读取器
+     */
+    ShapeReader onCheckCanceled(Runnable checkCanceled) {
+        this.checkCanceled = checkCanceled;
+        return this;
+    }
+
+    /**
+     * @return 已推断的值的数量，包括并行分区中的值；未被采样而跳过的元素不计在内
+     */
+    long getValueCount() {
+        return values + partitionValues.sum();
+    }
+
+    /**
+     * 读取解析器中的下一个 JSON 值并推断其形状。
+     *
+     * @param parser JSON 解析器
+     * @return 根值的形状
+     * @throws IOException 读取或解析失败
+     */
+    JsonShape read(JsonParser parser) throws IOException {
+        JsonShape root = new JsonShape();
+        if (parser.nextToken() != null) {
+            readValue(parser, root);
+        }
+        return root;
+    }
+
+    /**
+     * 推断解析器当前所在的值的形状，返回时解析器位于该值的最后一个 token 上。
+     *
+     * @param parser 位于值的第一个 token 上的解析器
+     * @return 该值的形状
+     * @throws IOException 读取或解析失败
+     */
+    JsonShape readCurrentValue(JsonParser parser) throws IOException {
+        JsonShape shape = new JsonShape();
+        readValue(parser, shape);
+        return shape;
+    }
+
+    /**
+     * 读取由空白分隔的一系列根级 JSON 值（如 JSON Lines），并把所有记录合并为一个数组形状，
+     * 其元素形状即为所有记录的合并形状。记录与数组元素一样参与采样和并行推断，内存占用与记录数量无关。
+     *
+     * @param parser JSON 解析器
+     * @return 以所有记录为元素的数组形状
+     * @throws IOException 读取或解析失败
+     */
+    JsonShape readSequence(JsonParser parser) throws IOException {
+        JsonShape root = new JsonShape();
+        root.observe(JsonShape.ARRAY);
+        readElements(parser, root, p -> p.nextToken() != null);
+        return root;
+    }
+
+    /**
+     * 将解析器当前所在的值合并到给定形状中。
+     *
+     * @param parser 位于值的第一个 token 上的解析器
+     * @param shape  要合并到的形状
+     * @throws IOException 读取或解析失败
+     */
+    private void readValue(JsonParser parser, JsonShape shape) throws IOException {
+        if ((++values & (CANCEL_INTERVAL - 1)) == 0) {
+            checkCanceled();
+            if (values % PROGRESS_INTERVAL == 0) {
+                reportProgress(parser);
+            }
+        }
+
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT:
+                shape.observe(JsonShape.OBJECT);
+                readObject(parser, shape);
+                break;
+            case START_ARRAY:
+                shape.observe(JsonShape.ARRAY);
+                readArray(parser, shape);
+                break;
+            case VALUE_STRING:
+                // 只在仍可能生成枚举时解码字符串
+                if (shape.isCollectingStrings()) {
+                    shape.observeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else {
+                    shape.observe(JsonShape.STRING);
+                }
+                break;
+            case VALUE_NUMBER_INT:
+                // 整数按长度解析，超出 long 范围的不解析，只看文本
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    shape.observeBigInteger(parser.getTextCharacters(), parser.getTextOffset(),
+                        parser.getTextLength());
+                } else {
+                    shape.observeInteger(parser.getLongValue());
+                }
+                break;
+            case VALUE_NUMBER_FLOAT:
+                // 浮点数只从文本中求出位数和指数，不解析为 double
+                shape.observeFloat(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                shape.observe(JsonShape.BOOLEAN);
+                break;
+            case VALUE_NULL:
+                shape.observe(JsonShape.NULL);
+                break;
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
+    /**
+     * 将对象的所有属性合并到形状中。
+     *
+     * @param parser 位于 START_OBJECT 上的解析器
+     * @param shape  对象形状
+     * @throws IOException 读取或解析失败
+     */
+    private void readObject(JsonParser parser, JsonShape shape) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String propertyName = parser.getCurrentName();
+            parser.nextToken();
+            readValue(parser, shape.property(propertyName));
+        }
+    }
+
+    /**
+     * 将数组中被采样的元素合并到元素形状中，未被采样的元素直接跳过。
+     *
+     * @param parser 位于 START_ARRAY 上的解析器
+     * @param shape  数组形状
+     * @throws IOException 读取或解析失败
+     */
+    private void readArray(JsonParser parser, JsonShape shape) throws IOException {
+        readElements(parser, shape, ShapeReader::nextElement);
+    }
+
+    /**
+     * 将游标依次给出的元素按采样策略合并到元素形状中。
+     *
+     * @param parser JSON 解析器
+     * @param shape  数组形状
+     * @param cursor 元素游标
+     * @throws IOException 读取或解析失败
+     */
+    private void readElements(JsonParser parser, JsonShape shape, ElementCursor cursor) throws IOException {
+        if (sampling.getStrategy() == ArraySampling.Strategy.RESERVOIR) {
+            readElementsReservoir(parser, shape, cursor);
+            return;
+        }
+
+        ArraySampling.Sampler sampler = sampling.newSampler();
+        Partitions partitions = null;
+        long index = 0;
+        long accepted = 0;
+        try {
+            while (cursor.next(parser)) {
+                elementProgress(parser, index);
+                if (!sampler.accept(index++)) {
+                    // 跳过的元素不经过 readValue，单独检查取消
+                    if ((index & (CANCEL_INTERVAL - 1)) == 0) {
+                        checkCanceled();
+                    }
+                    parser.skipChildren();
+                } else if (pool == null || accepted++ < PARTITION_SIZE) {
+                    // 小数组不值得复制 token，直接推断
+                    readValue(parser, shape.element());
+                } else {
+                    if (partitions == null) {
+                        partitions = new Partitions(shape.element());
+                    }
+                    partitions.add(parser);
+                }
+            }
+
+            if (partitions != null) {
+                partitions.finish();
+            }
+        } finally {
+            if (partitions != null) {
+                partitions.cancel();
+            }
+        }
+    }
+
+    /**
+     * 使用蓄水池采样从数组中均匀选出若干元素，先缓存其 token，读完数组后再合并到元素形状中。
+     * 蓄水池随元素数量增长，短数组不会按采样数量分配空间。
+     *
+     * @param parser JSON 解析器
+     * @param shape  数组形状
+     * @param cursor 元素游标
+     * @throws IOException 读取或解析失败
+     */
+    private void readElementsReservoir(JsonParser parser, JsonShape shape, ElementCursor cursor)
+        throws IOException {
+        int limit = sampling.getLimit();
+        List<TokenBuffer> reservoir = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(RESERVOIR_SEED);
+        long index = 0;
+        while (cursor.next(parser)) {
+            if ((index & (CANCEL_INTERVAL - 1)) == 0) {
+                checkCanceled();
+            }
+            elementProgress(parser, index);
+            if (reservoir.size() < limit) {
+                reservoir.add(copyElement(parser));
+            } else {
+                long slot = random.nextLong(index + 1);
+                if (slot < limit) {
+                    reservoir.set((int)slot, copyElement(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            index++;
+        }
+
+        int size = reservoir.size();
+
+        if (pool == null || size <= PARTITION_SIZE) {
+            readBuffers(reservoir, 0, size, shape.element());
+            return;
+        }
+
+        // 样本较多时按分区并行推断
+        Partitions partitions = new Partitions(shape.element());
+        try {
+            for (int from = 0; from < size; from += PARTITION_SIZE) {
+                int start = from;
+                int end = Math.min(size, from + PARTITION_SIZE);
+                partitions.submit(() -> {
+                    JsonShape partial = new JsonShape();
+                    ShapeReader reader = partitionReader();
+                    reader.readBuffers(reservoir, start, end, partial);
+                    partitionValues.add(reader.values);
+                    return partial;
+                });
+            }
+            partitions.finish();
+        } finally {
+            partitions.cancel();
+        }
+    }
+
+    /**
+     * 求出长度已知的数组中被采样的元素，顺序与读取时合并它们的顺序相同。
+     * 蓄水池采样按与 {@link #readElementsReservoir} 相同的随机序列选出元素，按蓄水池的槽位排列。
+     *
+     * @param sampling 数组元素采样策略
+     * @param size     数组长度
+     * @return 被采样的元素下标
+     */
+    static int[] sampledIndices(ArraySampling sampling, int size) {
+        if (sampling.getStrategy() == ArraySampling.Strategy.RESERVOIR) {
+            int limit = sampling.getLimit();
+            int[] reservoir = new int[Math.min(size, limit)];
+            SplittableRandom random = new SplittableRandom(RESERVOIR_SEED);
+            for (int index = 0; index < size; index++) {
+                if (index < limit) {
+                    reservoir[index] = index;
+                } else {
+                    long slot = random.nextLong(index + 1);
+                    if (slot < limit) {
+                        reservoir[(int)slot] = index;
+                    }
+                }
+            }
+            return reservoir;
+        }
+
+        ArraySampling.Sampler sampler = sampling.newSampler();
+        int[] sampled = new int[size];
+        int count = 0;
+        for (int index = 0; index < size; index++) {
+            if (sampler.accept(index)) {
+                sampled[count++] = index;
+            }
+        }
+        return Arrays.copyOf(sampled, count);
+    }
+
+    /**
+     * 将缓冲中的元素依次合并到元素形状中。
+     *
+     * @param buffers 元素的 token 缓冲
+     * @param from    起始下标（包含）
+     * @param to      结束下标（不包含）
+     * @param element 元素形状
+     * @throws IOException 读取或解析失败
+     */
+    private void readBuffers(List<TokenBuffer> buffers, int from, int to, JsonShape element) throws IOException {
+        for (int i = from; i < to; i++) {
+            try (JsonParser elementParser = buffers.get(i).asParser()) {
+                elementParser.nextToken();
+                readValue(elementParser, element);
+            }
+        }
+    }
+
+    /**
+     * @return 在并行分区中顺序推断的读取器，共享当前读取器的取消检查
+     */
+    private ShapeReader partitionReader() {
+        return new ShapeReader(sampling, null).onCheckCanceled(checkCanceled);
+    }
+
+    /**
+     * 每隔 {@link #ELEMENT_PROGRESS_INTERVAL} 个元素报告一次进度。
+     *
+     * @param parser 位于元素第一个 token 上的解析器
+     * @param index  元素下标
+     */
+    private void elementProgress(JsonParser parser, long index) {
+        if ((index & (ELEMENT_PROGRESS_INTERVAL - 1)) == 0 && index > 0) {
+            reportProgress(parser);
+        }
+    }
+
+    /**
+     * 报告解析器当前的字节偏移；没有进度回调或解析器没有字节偏移时忽略。
+     */
+    private void reportProgress(JsonParser parser) {
+        if (progress != null) {
+            long offset = parser.getCurrentLocation().getByteOffset();
+            if (offset >= 0) {
+                progress.accept(offset);
+            }
+        }
+    }
+
+    private void checkCanceled() {
+        if (checkCanceled != null) {
+            checkCanceled.run();
+        }
+    }
+
+    /**
+     * 将解析器当前所在的元素完整复制到 token 缓冲中。
+     *
+     * @param parser 位于元素第一个 token 上的解析器
+     * @return 元素的 token 缓冲
+     * @throws IOException 读取或解析失败
+     */
+    private static TokenBuffer copyElement(JsonParser parser) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentStructure(parser);
+        return buffer;
+    }
+
+    /**
+     * 前进到数组的下一个元素。
+     *
+     * @param parser 数组中的解析器
+     * @return 如果位于新元素上，则为 true；如果数组已结束，则为 false
+     * @throws IOException 读取或解析失败
+     */
+    private static boolean nextElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of array");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    /**
+     * 依次前进到数组或记录序列中的下一个元素。
+     */
+    private interface ElementCursor {
+        /**
+         * @param parser JSON 解析器
+         * @return 如果位于新元素的第一个 token 上，则为 true；如果没有更多元素，则为 false
+         * @throws IOException 读取或解析失败
+         */
+        boolean next(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * 一个数组的并行分区：元素按批复制到 token 缓冲中并提交到线程池，每个分区推断出一个部分形状，
+     * 再按提交顺序合并到元素形状中。同时在途的分区数量受限，内存占用与数组长度无关。
+     */
+    private final class Partitions {
+        /**
+         * 部分形状最终合并到的元素形状，只在当前线程中修改
+         */
+        private final JsonShape element;
+        private final Deque<ForkJoinTask<JsonShape>> pending = new ArrayDeque<>();
+        private final int maxPending = pool.getParallelism() * 2;
+
+        private TokenBuffer batch;
+        private int batchSize;
+
+        Partitions(JsonShape element) {
+            this.element = element;
+        }
+
+        /**
+         * 将解析器当前所在的元素加入当前分区，分区已满时提交。
+         *
+         * @param parser 位于元素第一个 token 上的解析器
+         * @throws IOException 读取或解析失败
+         */
+        void add(JsonParser parser) throws IOException {
+            if (batch == null) {
+                batch = new TokenBuffer(parser);
+            }
+            batch.copyCurrentStructure(parser);
+            if (++batchSize == PARTITION_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * 提交一个推断部分形状的任务，在途任务过多时先合并最早提交的结果。
+         *
+         * @param job 推断任务
+         * @throws IOException 任务失败
+         */
+        void submit(Callable<JsonShape> job) throws IOException {
+            pending.addLast(pool.submit(job));
+            while (pending.size() > maxPending) {
+                element.merge(join(pending.removeFirst()));
+            }
+        }
+
+        /**
+         * 提交剩余的元素，等待所有分区完成并按顺序合并。
+         *
+         * @throws IOException 任务失败
+         */
+        void finish() throws IOException {
+            flush();
+            while (!pending.isEmpty()) {
+                element.merge(join(pending.removeFirst()));
+            }
+        }
+
+        /**
+         * 取消所有尚未合并的分区。
+         */
+        void cancel() {
+            for (ForkJoinTask<JsonShape> task : pending) {
+                task.cancel(true);
+            }
+            pending.clear();
+        }
+
+        private void flush() throws IOException {
+            if (batch == null) {
+                return;
+            }
+
+            TokenBuffer tokens = batch;
+            int count = batchSize;
+            batch = null;
+            batchSize = 0;
+            submit(() -> {
+                JsonShape partial = new JsonShape();
+                ShapeReader reader = partitionReader();
+                try (JsonParser batchParser = tokens.asParser()) {
+                    for (int i = 0; i < count; i++) {
+                        batchParser.nextToken();
+                        reader.readValue(batchParser, partial);
+                    }
+                }
+                partitionValues.add(reader.values);
+                return partial;
+            });
+        }
+
+        private JsonShape join(ForkJoinTask<JsonShape> task) throws IOException {
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException)cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
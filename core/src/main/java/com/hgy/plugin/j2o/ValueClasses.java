@@ -0,0 +1,299 @@
+package com.hgy.plugin.j2o;
+
+import com.sun.codemodel.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 为不可变的值类生成接收所有字段的构造器、equals、hashCode 和 toString。
+ * <p>
+ * 字段为 final；构造器将列表复制为不可修改的列表，嵌套的列表逐层复制，基本类型数组复制后保存，
+ * 基本类型数组和含有基本类型数组的列表的获取器也返回副本。实例创建后不再改变，可以不加复制地在线程间共享，
+ * 并用作映射的键。含有基本类型数组的列表在 equals、hashCode 和 toString 中逐层转换为数组，按数组的内容处理。
+ * hashCode 在首次调用时计算并缓存在 transient 字段中；与 {@link String#hashCode()} 一样，
+ * 并发的首次调用最多重复计算同一个值，不需要同步。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 19:47:05
+ */
+final class ValueClasses {
+    private final JCodeModel model;
+    /**
+     * 当前构造器中局部变量名的序号
+     */
+    private int locals;
+    /**
+     * 当前类中将列表逐层转换为数组的辅助方法，没有含基本类型数组的列表字段时为 null
+     */
+    private JMethod deepArray;
+
+    /**
+     * 构造器
+     *
+     * @param model 生成类的代码模型
+     */
+    ValueClasses(JCodeModel model) {
+        this.model = model;
+    }
+
+    /**
+     * 为一个类生成构造器、equals、hashCode 和 toString。
+     *
+     * @param clazz  生成的类
+     * @param fields 类中生成的 final 字段
+     */
+    void add(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields) {
+        // 字段名来自 JSON 属性，缓存字段避开已有的名称
+        String hashName = "hash";
+        while (clazz.fields().containsKey(hashName)) {
+            hashName = "_" + hashName;
+        }
+        JFieldVar hash = clazz.field(JMod.PRIVATE | JMod.TRANSIENT, model.INT, hashName);
+
+        deepArray = null;
+        for (GenerateObject.GeneratedField field : fields) {
+            if (hasPrimitiveArrays(field.Field.type())) {
+                deepArray = createDeepArray(clazz);
+                break;
+            }
+        }
+        createConstructor(clazz, fields);
+        createEquals(clazz, fields, hash);
+        createHashCode(clazz, fields, hash);
+        createToString(clazz, fields);
+    }
+
+    /**
+     * @param clazz 要创建的类
+     * @param args  按字段顺序排列的参数
+     * @return 调用接收所有字段的构造器的表达式
+     */
+    static JInvocation construct(JDefinedClass clazz, List<? extends JExpression> args) {
+        JInvocation invocation = JExpr._new(clazz);
+        for (JExpression arg : args) {
+            invocation.arg(arg);
+        }
+        return invocation;
+    }
+
+    /**
+     * @param type 字段类型
+     * @return 属性缺失时字段的默认值
+     */
+    static JExpression defaultValue(JType type) {
+        if (!type.isPrimitive()) {
+            return JExpr._null();
+        }
+        return type.name().equals("boolean") ? JExpr.lit(false) : JExpr.lit(0);
+    }
+
+    /**
+     * 生成接收所有字段的构造器，参数按字段顺序排列。
+     */
+    private void createConstructor(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields) {
+        JMethod constructor = clazz.constructor(JMod.PUBLIC);
+        JBlock body = constructor.body();
+        locals = 0;
+        for (GenerateObject.GeneratedField field : fields) {
+            JVar param = constructor.param(field.Field.type(), field.Info.ParamName);
+            body.assign(JExpr._this().ref(field.Field), copyOf(body, field.Field.type(), param));
+        }
+    }
+
+    /**
+     * 生成获取器返回的值：基本类型数组和含有基本类型数组的列表返回副本，其他字段不可变，直接返回。
+     *
+     * @param block 获取器的方法体，复制所需的语句添加到其中
+     * @param type  字段类型
+     * @param field 字段
+     * @return 获取器返回的表达式
+     */
+    JExpression getterValue(JBlock block, JType type, JExpression field) {
+        if (!(type.isArray() && type.elementType().isPrimitive()) && !hasPrimitiveArrays(type)) {
+            return field;
+        }
+        locals = 0;
+        return copyOf(block, type, field);
+    }
+
+    /**
+     * 生成复制一个值的表达式：列表复制为不可修改的列表，基本类型数组被克隆，其他值不可变，直接共享。
+     * 元素本身需要复制的列表逐个复制元素，所需的语句添加到给定的块中。
+     */
+    private JExpression copyOf(JBlock block, JType type, JExpression value) {
+        if (type.isArray() && type.elementType().isPrimitive()) {
+            return JOp.cond(value.eq(JExpr._null()), JExpr._null(), value.invoke("clone"));
+        }
+        if (!isList(type)) {
+            return value;
+        }
+        JClass element = ((JClass)type).getTypeParameters().get(0);
+        JClass arrayList = model.ref(ArrayList.class).narrow(element);
+        JClass collections = model.ref(Collections.class);
+        if (!isList(element) && !(element.isArray() && element.elementType().isPrimitive())) {
+            return JOp.cond(value.eq(JExpr._null()), JExpr._null(),
+                collections.staticInvoke("unmodifiableList").arg(JExpr._new(arrayList).arg(value)));
+        }
+
+        int local = ++locals;
+        JVar copy = block.decl(type, "copy" + local, JExpr._null());
+        JBlock notNull = block._if(value.ne(JExpr._null()))._then();
+        JVar items = notNull.decl(type, "items" + local, JExpr._new(arrayList).arg(value.invoke("size")));
+        JForEach item = notNull.forEach(element, "item" + local, value);
+        item.body().add(items.invoke("add").arg(copyOf(item.body(), element, item.var())));
+        notNull.assign(copy, collections.staticInvoke("unmodifiableList").arg(items));
+        return copy;
+    }
+
+    /**
+     * 生成 equals：先比较已缓存的哈希值和基本类型字段，再比较引用类型的字段。
+     */
+    private void createEquals(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields, JFieldVar hash) {
+        JMethod equals = clazz.method(JMod.PUBLIC, model.BOOLEAN, "equals");
+        equals.annotate(Override.class);
+        JVar o = equals.param(Object.class, "o");
+
+        JBlock body = equals.body();
+        body._if(o.eq(JExpr._this()))._then()._return(JExpr.lit(true));
+        body._if(o._instanceof(clazz).not())._then()._return(JExpr.lit(false));
+        JVar other = body.decl(clazz, "other", JExpr.cast(clazz, o));
+
+        // 两个哈希值都已计算且不同时，不必比较字段
+        JFieldRef thisHash = JExpr._this().ref(hash);
+        JFieldRef otherHash = other.ref(hash);
+        body._if(thisHash.ne(JExpr.lit(0)).cand(otherHash.ne(JExpr.lit(0))).cand(thisHash.ne(otherHash)))._then()
+            ._return(JExpr.lit(false));
+
+        JExpression result = null;
+        for (boolean primitive : new boolean[]{true, false}) {
+            for (GenerateObject.GeneratedField field : fields) {
+                JType type = field.Field.type();
+                if (type.isPrimitive() != primitive) {
+                    continue;
+                }
+                JExpression equal = fieldEquals(type, JExpr._this().ref(field.Field), other.ref(field.Field));
+                result = result == null ? equal : result.cand(equal);
+            }
+        }
+        body._return(result == null ? JExpr.lit(true) : result);
+    }
+
+    /**
+     * 浮点数按 compare 比较，与其包装类型的 equals 和 hashCode 一致。
+     */
+    private JExpression fieldEquals(JType type, JExpression left, JExpression right) {
+        switch (type.name()) {
+            case "double":
+                return model.ref(Double.class).staticInvoke("compare").arg(left).arg(right).eq(JExpr.lit(0));
+            case "float":
+                return model.ref(Float.class).staticInvoke("compare").arg(left).arg(right).eq(JExpr.lit(0));
+            default:
+                if (type.isPrimitive()) {
+                    return left.eq(right);
+                }
+                if (hasPrimitiveArrays(type)) {
+                    return model.ref(Arrays.class).staticInvoke("deepEquals")
+                        .arg(JExpr.invoke(deepArray).arg(left)).arg(JExpr.invoke(deepArray).arg(right));
+                }
+                JClass helper = type.isArray() ? model.ref(Arrays.class) : model.ref(Objects.class);
+                return helper.staticInvoke("equals").arg(left).arg(right);
+        }
+    }
+
+    /**
+     * 生成 hashCode：缓存为 0 时计算并保存，基本类型的字段不装箱。
+     */
+    private void createHashCode(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields, JFieldVar hash) {
+        JMethod hashCode = clazz.method(JMod.PUBLIC, model.INT, "hashCode");
+        hashCode.annotate(Override.class);
+
+        JBlock body = hashCode.body();
+        JVar h = body.decl(model.INT, "h", JExpr._this().ref(hash));
+        JBlock compute = body._if(h.eq(JExpr.lit(0)))._then();
+        compute.assign(h, JExpr.lit(1));
+        for (GenerateObject.GeneratedField field : fields) {
+            JType type = field.Field.type();
+            JExpression value = JExpr._this().ref(field.Field);
+            JExpression fieldHash;
+            if (type.isPrimitive()) {
+                fieldHash = type.boxify().staticInvoke("hashCode").arg(value);
+            } else if (hasPrimitiveArrays(type)) {
+                fieldHash =
+                    model.ref(Arrays.class).staticInvoke("deepHashCode").arg(JExpr.invoke(deepArray).arg(value));
+            } else {
+                JClass helper = type.isArray() ? model.ref(Arrays.class) : model.ref(Objects.class);
+                fieldHash = helper.staticInvoke("hashCode").arg(value);
+            }
+            compute.assign(h, JExpr.lit(31).mul(h).plus(fieldHash));
+        }
+        compute.assign(JExpr._this().ref(hash), h);
+        body._return(h);
+    }
+
+    /**
+     * 生成 toString，以原始的属性名列出所有字段，基本类型数组列出其元素。
+     */
+    private void createToString(JDefinedClass clazz, List<GenerateObject.GeneratedField> fields) {
+        JMethod toString = clazz.method(JMod.PUBLIC, model.ref(String.class), "toString");
+        toString.annotate(Override.class);
+
+        String separator = clazz.name() + "{";
+        JExpression result = null;
+        for (GenerateObject.GeneratedField field : fields) {
+            JExpression value = JExpr._this().ref(field.Field);
+            if (field.Field.type().isArray()) {
+                value = model.ref(Arrays.class).staticInvoke("toString").arg(value);
+            } else if (hasPrimitiveArrays(field.Field.type())) {
+                value = model.ref(Arrays.class).staticInvoke("deepToString").arg(JExpr.invoke(deepArray).arg(value));
+            }
+            JExpression name = JExpr.lit(separator + field.Info.PropertyName + "=");
+            result = result == null ? name.plus(value) : result.plus(name).plus(value);
+            separator = ", ";
+        }
+        toString.body()._return(result == null ? JExpr.lit(clazz.name() + "{}") : result.plus(JExpr.lit("}")));
+    }
+
+    /**
+     * 生成 private static Object[] deepArray(List&lt;?&gt; list)：将列表及其中的列表逐层转换为数组，
+     * 使 Arrays 的 deepEquals、deepHashCode 和 deepToString 按内容处理其中的基本类型数组。
+     */
+    private JMethod createDeepArray(JDefinedClass clazz) {
+        JClass objectArray = model.ref(Object.class).array();
+        JClass anyList = model.ref(List.class).narrow(model.wildcard());
+        JMethod method = clazz.method(JMod.PRIVATE | JMod.STATIC, objectArray, "deepArray");
+        JVar list = method.param(anyList, "list");
+
+        JBlock body = method.body();
+        body._if(list.eq(JExpr._null()))._then()._return(JExpr._null());
+        JVar array = body.decl(objectArray, "array", list.invoke("toArray"));
+        JForLoop loop = body._for();
+        JVar i = loop.init(model.INT, "i", JExpr.lit(0));
+        loop.test(i.lt(array.ref("length")));
+        loop.update(i.incr());
+        JVar item = loop.body().decl(model.ref(Object.class), "item", array.component(i));
+        loop.body()._if(item._instanceof(model.ref(List.class)))._then()
+            .assign(array.component(i), JExpr.invoke(method).arg(JExpr.cast(anyList, item)));
+        body._return(array);
+        return method;
+    }
+
+    /**
+     * @return 类型是否为直接或在嵌套的列表中含有基本类型数组的列表
+     */
+    private boolean hasPrimitiveArrays(JType type) {
+        if (!isList(type)) {
+            return false;
+        }
+        JClass element = ((JClass)type).getTypeParameters().get(0);
+        return element.isArray() && element.elementType().isPrimitive() || hasPrimitiveArrays(element);
+    }
+
+    private boolean isList(JType type) {
+        return !type.isPrimitive() && !type.isArray() && ((JClass)type).erasure().equals(model.ref(List.class));
+    }
+}
@@ -0,0 +1,98 @@
+package com.hgy.plugin.j2o;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次生成中新增、修改、未变化和删除的源文件。
+ *
+ * @author hgy
+ * @since 2026-10-16 13:12:09
+ */
+public final class WriteReport {
+    private final List<String> added = new ArrayList<>();
+    private final List<String> changed = new ArrayList<>();
+    private final List<String> unchanged = new ArrayList<>();
+    private final List<String> deleted = new ArrayList<>();
+
+    /**
+     * @param path 新增的文件，相对于源根
+     */
+    public void added(String path) {
+        added.add(path);
+    }
+
+    /**
+     * @param path 内容被修改的文件，相对于源根
+     */
+    public void changed(String path) {
+        changed.add(path);
+    }
+
+    /**
+     * @param path 内容未变化、没有重写的文件，相对于源根
+     */
+    public void unchanged(String path) {
+        unchanged.add(path);
+    }
+
+    /**
+     * @param path 不再生成而被删除的文件，相对于源根
+     */
+    public void deleted(String path) {
+        deleted.add(path);
+    }
+
+    /**
+     * @return 新增的文件
+     */
+    public List<String> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return 被修改的文件
+     */
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return 未变化的文件
+     */
+    public List<String> getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return 被删除的文件
+     */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return 新增、修改和未变化的文件数量，有文件被删除时也包括删除的数量
+     */
+    public String summary() {
+        String summary = added.size() + " added, " + changed.size() + " changed, " + unchanged.size() + " unchanged";
+        return deleted.isEmpty() ? summary : summary + ", " + deleted.size() + " deleted";
+    }
+
+    /**
+     * @return 适合在通知中显示的摘要，列出新增和修改的文件
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder(summary());
+        for (String path : added) {
+            html.append("<br/>+ ").append(path);
+        }
+        for (String path : changed) {
+            html.append("<br/>* ").append(path);
+        }
+        for (String path : deleted) {
+            html.append("<br/>- ").append(path);
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.hgy.plugin.inspired;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * {@link Inflector} 的测试。
+ * <p>
+ * inflections.tsv 中每行为单词、单数形式和复数形式，由原先逐条按正则匹配规则的实现生成，
+ * 按后缀索引规则并缓存结果后，对每个单词的变形结果必须与之相同。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 21:58:30
+ */
+class InflectorTest {
+
+    @Test
+    void matchesRegularExpressionRules() throws IOException {
+        Inflector inflector = new Inflector();
+        List<String[]> inflections = inflections();
+        for (String[] inflection : inflections) {
+            assertEquals(inflection[1], inflector.singularize(inflection[0]), "singular of " + inflection[0]);
+            assertEquals(inflection[2], inflector.pluralize(inflection[0]), "plural of " + inflection[0]);
+        }
+
+        // 第二遍全部命中缓存，结果不变
+        long misses = inflector.getCacheMisses();
+        for (String[] inflection : inflections) {
+            assertEquals(inflection[1], inflector.singularize(inflection[0]));
+            assertEquals(inflection[2], inflector.pluralize(inflection[0]));
+        }
+        assertEquals(misses, inflector.getCacheMisses());
+    }
+
+    @Test
+    void countsCacheHitsAndMisses() {
+        Inflector inflector = new Inflector();
+        assertEquals("orders", inflector.pluralize("order"));
+        assertEquals("orders", inflector.pluralize(" order "));
+        assertEquals("order", inflector.singularize("orders"));
+        assertEquals(2, inflector.getCacheMisses());
+        assertEquals(1, inflector.getCacheHits());
+    }
+
+    @Test
+    void invalidatesCachedResultsWhenRulesChange() {
+        Inflector inflector = new Inflector();
+        assertEquals("users", inflector.pluralize("user"));
+        inflector.addUncountable("user");
+        assertEquals("user", inflector.pluralize("user"));
+
+        assertEquals("foos", inflector.pluralize("foo"));
+        inflector.addIrregular("foo", "fooz");
+        assertEquals("fooz", inflector.pluralize("foo"));
+        assertEquals("foo", inflector.singularize("fooz"));
+
+        inflector.clear();
+        assertEquals("fooz", inflector.pluralize("fooz"));
+    }
+
+    @Test
+    void clonesHaveIndependentRules() {
+        Inflector original = new Inflector();
+        assertEquals("items", original.pluralize("item"));
+
+        Inflector copy = original.clone();
+        copy.addIrregular("item", "itemz");
+        assertEquals("itemz", copy.pluralize("item"));
+        assertEquals("items", original.pluralize("item"));
+    }
+
+    @Test
+    void sharesOneInstance() {
+        assertSame(Inflector.getInstance(), Inflector.getInstance());
+    }
+
+    private static List<String[]> inflections() throws IOException {
+        List<String[]> inflections = new ArrayList<>();
+        try (InputStream in = InflectorTest.class.getResourceAsStream("inflections.tsv")) {
+            assertNotNull(in, "inflections.tsv");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                inflections.add(line.split("\t", -1));
+            }
+        }
+        return inflections;
+    }
+}
@@ -0,0 +1,390 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Generated;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link GenerateObject} 的测试。
+ * <p>
+ * 生成结果与原先基于 JsonNode 树的实现比对：固定样例与基线输出比对，随机文档与测试中按树推断的形状比对。
+ * 生成的 Gson 适配器和 Jackson 序列化器在进程内编译，并用目标库往返同一份 JSON。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 21:12:40
+ */
+class GenerateObjectTest {
+    /**
+     * 原先的实现用该配置读取 JsonNode 树
+     */
+    private static final ObjectMapper TREE_MAPPER =
+        new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private static final String ROUND_TRIP_JSON = "{\"id\": 12345678901, \"count\": 3, \"ratio\": 1.5, "
+        + "\"precise\": 0.1234567890123, \"ok\": true, \"name\": \"x\", \"tags\": [1, 2, 3], "
+        + "\"words\": [\"a\", \"b\"], \"matrix\": [[1, 2], [3]], \"inner\": {\"v\": 2, \"w\": \"y\"}, "
+        + "\"items\": [{\"sku\": \"p\", \"qty\": 2, \"state\": \"open\"}, {\"sku\": \"q\", \"qty\": 1, \"state\": "
+        + "\"closed\"}, {\"sku\": \"r\", \"qty\": 5, \"state\": \"open\"}, {\"sku\": \"s\", \"qty\": 0, \"state\": "
+        + "\"closed\"}]}";
+
+    @Test
+    void generatesBaselineClassesForSample() throws Exception {
+        // 期望的输出由原先的实现生成，仅按 never-null 数值使用基本类型的规则把 Long、Double 和 Boolean 改为基本类型
+        String json = resource("user.json");
+        Map<String, String> files = Shapes.text(new GenerateObject("sample", GenerationProgress.NONE)
+            .generateFromJson("User", json, new GenerateOptions()));
+
+        assertEquals(List.of("sample/Address.java", "sample/Item.java", "sample/Order.java", "sample/User.java"),
+            files.keySet().stream().sorted().collect(Collectors.toList()));
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            String name = file.getKey().substring(file.getKey().lastIndexOf('/') + 1);
+            assertEquals(resource("user/" + name), file.getValue(), name);
+        }
+    }
+
+    @Test
+    void fileAndStringInputsGenerateTheSameClasses(@TempDir Path dir) throws Exception {
+        String json = resource("user.json");
+        Path file = dir.resolve("user.json");
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+
+        GenerateOptions options = Shapes.DETAILED;
+        assertEquals(
+            Shapes.text(new GenerateObject("sample", GenerationProgress.NONE).generateFromJson("User", json, options)),
+            Shapes.text(new GenerateObject("sample", GenerationProgress.NONE).generateFromJsonFile("User", file,
+                options)));
+    }
+
+    @Test
+    void streamingInferenceMatchesTreeInference() throws Exception {
+        List<String> documents = new ArrayList<>();
+        documents.add(resource("user.json"));
+        // 超出 double 范围的数值在树中已变为无穷大，见 narrowsNumbersToTheObservedRange
+        documents.add("{\"big\": 123456789012345678901234567890, \"tiny\": 1.5e-400, "
+            + "\"exp\": 2.5E+3, \"neg\": -0.00012, \"zero\": 0.0, \"mixed\": [1, 2.5, null], "
+            + "\"any\": [1, \"a\", true], "
+            + "\"nested\": [[[1]], [[2, 3]], []], \"empty\": {}, \"none\": [], \"nulls\": [null, null], "
+            + "\"state\": [\"on\", \"off\", \"on\", \"off\"], \"text\": \"\\u00e9\\n\\\"q\\\"\"}");
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            documents.add(randomObject(random, 0));
+        }
+
+        for (String json : documents) {
+            assertEquals(Shapes.render(treeShape(json), Shapes.DETAILED),
+                Shapes.render(Shapes.read(json, ArraySampling.ALL), Shapes.DETAILED), json);
+        }
+    }
+
+    @Test
+    void narrowsNumbersToTheObservedRange() {
+        assertEquals(short.class, numberType("[1, -200, 16383]", true));
+        assertEquals(int.class, numberType("[16384]", true));
+        assertEquals(int.class, numberType("[-1000000000]", true));
+        assertEquals(long.class, numberType("[1100000000]", true));
+        assertEquals(long.class, numberType("[1]", false));
+        assertEquals(BigInteger.class, numberType("[1, 99999999999999999999]", true));
+
+        assertEquals(float.class, numberType("[1.5, 0.25, 123456.0]", true));
+        assertEquals(float.class, numberType("[1, 2.5]", true));
+        assertEquals(float.class, numberType("[1e36]", true));
+        assertEquals(double.class, numberType("[1e37]", true));
+        assertEquals(double.class, numberType("[1.234567]", true));
+        assertEquals(double.class, numberType("[1.5]", false));
+        assertEquals(BigDecimal.class, numberType("[1e400]", true));
+        assertEquals(BigDecimal.class, numberType("[1e-400]", false));
+    }
+
+    @Test
+    void narrowedNumbersAreGeneratedAsPrimitiveFields() throws Exception {
+        String json = "{\"small\": 7, \"medium\": 70000, \"large\": 7000000000, \"ratio\": 0.5, \"precise\": 0.1234567,"
+            + " \"optional\": [{\"n\": 1}, {\"n\": null}]}";
+        Map<String, String> files = Shapes.text(new GenerateObject("sample", GenerationProgress.NONE)
+            .generateFromJson("Root", json, new GenerateOptions().withNarrowNumbers(true)));
+
+        String root = files.get("sample/Root.java");
+        assertContains(root, "private short small;");
+        assertContains(root, "private int medium;");
+        assertContains(root, "private long large;");
+        assertContains(root, "private float ratio;");
+        assertContains(root, "private double precise;");
+        // 出现过 null 的数值保持包装类型
+        assertContains(files.get("sample/Optional.java"), "private Short n;");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void gsonTypeAdaptersRoundTrip(boolean immutable, @TempDir Path dir) throws Exception {
+        GenerateOptions options = Shapes.DETAILED.withGenerateTypeAdapters(true).withImmutable(immutable);
+        ClassLoader loader = compile(generate(ROUND_TRIP_JSON, options), dir);
+        Class<?> root = loader.loadClass("sample.Root");
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(
+                (TypeAdapterFactory)loader.loadClass("sample.RootTypeAdapterFactory").getConstructor().newInstance())
+            .create();
+
+        Object value = gson.fromJson(withUnknownProperty(ROUND_TRIP_JSON), root);
+        assertSame(root, value.getClass());
+        assertEquals(com.google.gson.JsonParser.parseString(ROUND_TRIP_JSON),
+            com.google.gson.JsonParser.parseString(gson.toJson(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void jacksonSerializersRoundTrip(boolean immutable, @TempDir Path dir) throws Exception {
+        GenerateOptions options = Shapes.DETAILED.withTarget(GenerateOptions.Target.JACKSON).withImmutable(immutable);
+        ClassLoader loader = compile(generate(ROUND_TRIP_JSON, options), dir);
+        Class<?> root = loader.loadClass("sample.Root");
+        ObjectMapper mapper = new ObjectMapper();
+
+        Object value = mapper.readValue(withUnknownProperty(ROUND_TRIP_JSON), root);
+        assertSame(root, value.getClass());
+        assertEquals(mapper.readTree(ROUND_TRIP_JSON), mapper.readTree(mapper.writeValueAsString(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void jacksonSerializersRejectContainersForStrings(boolean immutable, @TempDir Path dir) throws Exception {
+        GenerateOptions options = Shapes.DETAILED.withTarget(GenerateOptions.Target.JACKSON).withImmutable(immutable);
+        ClassLoader loader = compile(generate(ROUND_TRIP_JSON, options), dir);
+        Class<?> root = loader.loadClass("sample.Root");
+        ObjectMapper mapper = new ObjectMapper();
+
+        // 字符串属性和字符串列表的元素遇到对象或数组时与 databind 一样报告类型不匹配，而不是读成 null 后继续
+        for (String mismatched : List.of(ROUND_TRIP_JSON.replace("\"name\": \"x\"", "\"name\": {\"ok\": 1}"),
+            ROUND_TRIP_JSON.replace("\"name\": \"x\"", "\"name\": [\"x\"]"),
+            ROUND_TRIP_JSON.replace("[\"a\", \"b\"]", "[\"a\", {\"b\": 1}]"))) {
+            assertNotEquals(ROUND_TRIP_JSON, mismatched);
+            MismatchedInputException e =
+                assertThrows(MismatchedInputException.class, () -> mapper.readValue(mismatched, root), mismatched);
+            assertSame(String.class, e.getTargetType(), mismatched);
+        }
+    }
+
+    @Test
+    void immutableValuesCompareListsOfPrimitiveArraysByContent(@TempDir Path dir) throws Exception {
+        String json = "{\"m\": [[1, 2], [3]], \"k\": [1, 2]}";
+        GenerateOptions options = new GenerateOptions().withGenerateTypeAdapters(true).withPrimitiveArrays(true)
+            .withImmutable(true);
+        ClassLoader loader = compile(generate(json, options), dir);
+        Class<?> root = loader.loadClass("sample.Root");
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(
+                (TypeAdapterFactory)loader.loadClass("sample.RootTypeAdapterFactory").getConstructor().newInstance())
+            .create();
+
+        Object value = gson.fromJson(json, root);
+        Object same = gson.fromJson(json, root);
+        assertEquals(value, same);
+        assertEquals(value.hashCode(), same.hashCode());
+        assertEquals(value.toString(), same.toString());
+        assertNotEquals(value, gson.fromJson(json.replace("[3]", "[4]"), root));
+
+        // 访问器返回副本，修改它不影响实例
+        Method getter = root.getMethod("getM");
+        ((long[])((List<?>)getter.invoke(value)).get(0))[0] = 42;
+        assertEquals(value, same);
+    }
+
+    /**
+     * 按原先的实现读取 JsonNode 树，再按与 {@link ShapeReader} 相同的规则把树中的值合并到形状中。
+     */
+    private static JsonShape treeShape(String json) throws IOException {
+        JsonShape shape = new JsonShape();
+        observeTree(TREE_MAPPER.readTree(json), shape);
+        return shape;
+    }
+
+    private static void observeTree(JsonNode node, JsonShape shape) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                shape.observe(JsonShape.OBJECT);
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> property = it.next();
+                    observeTree(property.getValue(), shape.property(property.getKey()));
+                }
+                break;
+            case ARRAY:
+                shape.observe(JsonShape.ARRAY);
+                for (JsonNode element : node) {
+                    observeTree(element, shape.element());
+                }
+                break;
+            case STRING:
+                if (shape.isCollectingStrings()) {
+                    char[] text = node.textValue().toCharArray();
+                    shape.observeString(text, 0, text.length);
+                } else {
+                    shape.observe(JsonShape.STRING);
+                }
+                break;
+            case NUMBER:
+                if (node.numberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    char[] text = node.bigIntegerValue().toString().toCharArray();
+                    shape.observeBigInteger(text, 0, text.length);
+                } else if (node.isIntegralNumber()) {
+                    shape.observeInteger(node.longValue());
+                } else {
+                    char[] text = node.decimalValue().toString().toCharArray();
+                    shape.observeFloat(text, 0, text.length);
+                }
+                break;
+            case BOOLEAN:
+                shape.observe(JsonShape.BOOLEAN);
+                break;
+            case NULL:
+                shape.observe(JsonShape.NULL);
+                break;
+            default:
+                throw new IllegalArgumentException("unexpected node " + node.getNodeType());
+        }
+    }
+
+    /**
+     * 生成随机对象，属性名取自很小的集合，使不同位置上的对象共享属性并产生类型冲突。
+     */
+    private static String randomObject(Random random, int depth) {
+        StringJoiner object = new StringJoiner(", ", "{", "}");
+        int size = random.nextInt(6);
+        List<Integer> names = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            names.add(i);
+        }
+        Collections.shuffle(names, random);
+        for (int i = 0; i < size; i++) {
+            object.add("\"p" + names.get(i) + "\": " + randomValue(random, depth + 1));
+        }
+        return object.toString();
+    }
+
+    private static String randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 3 ? 7 : 9)) {
+            case 0:
+                return String.valueOf(random.nextInt(200000) - 100000);
+            case 1:
+                return String.valueOf(random.nextLong());
+            case 2:
+                String exponent = random.nextBoolean() ? "" : "e" + (random.nextInt(80) - 40);
+                return random.nextInt(1000) + "." + random.nextInt(1000) + exponent;
+            case 3:
+                return "\"s" + random.nextInt(4) + "\"";
+            case 4:
+                return random.nextBoolean() ? "true" : "false";
+            case 5:
+                return "null";
+            case 6:
+                return "12345678901234567890" + random.nextInt(10);
+            case 7:
+                return randomObject(random, depth);
+            default:
+                StringJoiner array = new StringJoiner(", ", "[", "]");
+                int size = random.nextInt(5);
+                for (int i = 0; i < size; i++) {
+                    array.add(randomValue(random, depth + 1));
+                }
+                return array.toString();
+        }
+    }
+
+    private static Class<?> numberType(String json, boolean narrow) {
+        return Shapes.read(json, ArraySampling.ALL).getElement().numberType(narrow, 2);
+    }
+
+    private static GeneratedSources generate(String json, GenerateOptions options) throws Exception {
+        return new GenerateObject("sample", GenerationProgress.NONE).generateFromJson("Root", json, options);
+    }
+
+    /**
+     * 在根对象中加入一个生成的类中没有的属性，反序列化时应跳过它。
+     */
+    private static String withUnknownProperty(String json) {
+        return "{\"unknown\": {\"a\": [1, {\"b\": null}]}, " + json.substring(1);
+    }
+
+    /**
+     * 将生成的源文件写入目录并编译，类路径只包含生成的代码引用的库。
+     *
+     * @return 加载编译出的类的类加载器
+     */
+    private static ClassLoader compile(GeneratedSources sources, Path dir) throws IOException, URISyntaxException {
+        sources.writeTo(dir);
+        List<String> arguments = new ArrayList<>(List.of("-nowarn", "-encoding", "UTF-8", "-d", dir.toString(),
+            "-classpath", classPath(Gson.class, ObjectMapper.class, JsonParser.class, JsonProperty.class,
+                Generated.class)));
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(file -> arguments.add(file.toString()));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "a JDK is required to compile the generated classes");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, errors, arguments.toArray(new String[0]));
+        assertEquals(0, status, () -> errors.toString(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{dir.toUri().toURL()}, GenerateObjectTest.class.getClassLoader());
+    }
+
+    private static String classPath(Class<?>... classes) throws URISyntaxException {
+        StringJoiner path = new StringJoiner(File.pathSeparator);
+        for (Class<?> type : classes) {
+            path.add(Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        return path.toString();
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = GenerateObjectTest.class.getResourceAsStream(name)) {
+            assertNotNull(in, name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void assertContains(String text, String expected) {
+        assertNotNull(text);
+        assertTrue(text.contains(expected), () -> expected + " not found in\n" + text);
+    }
+}
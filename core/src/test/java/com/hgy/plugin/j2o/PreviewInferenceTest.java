@@ -0,0 +1,337 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link PreviewInference} 的测试：任意顺序的编辑之后，增量推断的结果都与完整解析编辑后的文本相同。
+ * <p>
+ * 使用很小的分段阈值，使短文本中的数组和对象也逐层分段，编辑落在各层成员的内部、之间和边界上。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 21:43:17
+ */
+class PreviewInferenceTest {
+    private static final Runnable NOT_CANCELED = () -> {
+    };
+    /**
+     * 文本不是格式良好的 JSON 时的推断结果，两种解析方式报告的异常类型可以不同
+     */
+    private static final String MALFORMED = "malformed";
+
+    @Test
+    void followsScriptedEdits() throws Exception {
+        Editor editor = new Editor("{\"a\": 1, \"data\": [{\"x\": 1}, {\"x\": 2}, {\"x\": 3}], \"b\": \"s\"}", 8);
+
+        // 修改被分段的数组中一个元素的值
+        editor.replace("2}", 1, "2.5");
+        // 在数组末尾追加元素
+        editor.insert(editor.text.indexOf("]"), ", {\"y\": null}");
+        // 删除根对象的第一个成员
+        editor.replace("\"a\": 1, ", "\"a\": 1, ".length(), "");
+        // 在根对象末尾逐个字符地输入新成员，中间状态不是格式良好的 JSON
+        editor.type(editor.text.length() - 1, ", \"c\": [true, false]");
+        // 删除数组的右括号后再补上
+        int bracket = editor.text.indexOf("]");
+        editor.remove(bracket, 1);
+        editor.insert(bracket, "]");
+        // 修改根的括号之前和之后的内容
+        editor.insert(0, " ");
+        editor.insert(editor.text.length(), "\n");
+        // 一次删除跨越多个元素的文本
+        int from = editor.text.indexOf("{\"x\": 1}");
+        editor.remove(from, editor.text.indexOf("{\"x\": 3}") - from);
+    }
+
+    @Test
+    void accumulatesEditsBetweenInferences() throws Exception {
+        Editor editor = new Editor("[{\"k\": [1, 2, 3]}, {\"k\": [4]}, {\"k\": []}, {\"j\": \"v\"}]", 4);
+        editor.batch(() -> {
+            editor.edit(editor.text.indexOf("2"), "20", 1);
+            editor.edit(editor.text.indexOf("[4]"), "[4.5, null]", 3);
+            editor.edit(editor.text.indexOf("\"v\""), "{\"w\": 1}", 3);
+            editor.edit(1, "{}, ", 0);
+        });
+    }
+
+    @Test
+    void followsRandomKeystrokes() throws Exception {
+        for (long seed = 0; seed < 150; seed++) {
+            Random random = new Random(seed);
+            String text = random.nextBoolean()
+                ? "{\"data\": " + randomValue(random, 0) + ", \"x\": [" + randomValue(random, 1) + ", "
+                + randomValue(random, 1) + "]}"
+                : randomValue(random, 0);
+            Editor editor = new Editor(text, 1 + random.nextInt(60));
+            for (int step = 0; step < 30; step++) {
+                randomEdit(editor, random);
+            }
+        }
+    }
+
+    @Test
+    void keepsCachedMembersWhenCanceled() throws Exception {
+        StringBuilder json = new StringBuilder("{\"data\": [");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append(", \"v\": [").append(i).append("]}");
+        }
+        Editor editor = new Editor(json.append("]}").toString(), 64);
+
+        for (int limit = 1; ; limit++) {
+            int at = editor.text.indexOf("\"id\": 100");
+            editor.edit(at, "\"id\": 100.5", "\"id\": 100".length());
+            int[] calls = {0};
+            int cancelAt = limit;
+            try {
+                editor.inference.infer(PreviewInference.Source.of(editor.text), () -> {
+                    if (++calls[0] == cancelAt) {
+                        throw new CancellationException();
+                    }
+                });
+            } catch (CancellationException e) {
+                // 被取消的推断之后继续编辑和推断，结果仍应与完整解析相同
+                editor.check();
+                editor.edit(editor.text.indexOf("100.5"), "100", "100.5".length());
+                editor.check();
+                continue;
+            }
+            editor.check();
+            break;
+        }
+    }
+
+    @Test
+    void collapsedValuesFollowArraySampling() throws Exception {
+        StringBuilder data = new StringBuilder("[");
+        for (int i = 0; i < 300; i++) {
+            data.append(i == 0 ? "" : ", ").append("{\"p").append(i).append("\": [")
+                .append(i % 7 == 0 ? "" : i + ", 1.5").append("]}");
+        }
+        String json = "{\"data\": " + data.append("]") + ", \"empty\": [],"
+            + " \"nested\": [[{\"a\": 1}, {\"b\": 2}], [{\"c\": 3}]]}";
+
+        for (ArraySampling sampling : List.of(ArraySampling.ALL,
+            new ArraySampling(ArraySampling.Strategy.FIRST_N, 1),
+            new ArraySampling(ArraySampling.Strategy.FIRST_N, 20),
+            new ArraySampling(ArraySampling.Strategy.STRIDE, 8),
+            new ArraySampling(ArraySampling.Strategy.RESERVOIR, 1),
+            new ArraySampling(ArraySampling.Strategy.RESERVOIR, 20))) {
+            // 根对象的成员都小于分段阈值，各自合并为一个形状
+            JsonShape shape = new PreviewInference(sampling, Integer.MAX_VALUE)
+                .infer(PreviewInference.Source.of(json), NOT_CANCELED);
+            assertEquals(Shapes.render(Shapes.read(json, sampling), Shapes.DETAILED),
+                Shapes.render(shape, Shapes.DETAILED), sampling.getStrategy() + " " + sampling.getLimit());
+        }
+    }
+
+    @Test
+    void rejectsMalformedText() {
+        PreviewInference inference = new PreviewInference(ArraySampling.ALL, 4);
+        assertThrows(IOException.class,
+            () -> inference.infer(PreviewInference.Source.of("{\"a\": [1, 2"), NOT_CANCELED));
+    }
+
+    /**
+     * 随机编辑：替换一个标量、在标量的边界输入数字，或在任意位置插入、删除一个结构字符，逐个字符地输入。
+     */
+    private static void randomEdit(Editor editor, Random random) throws Exception {
+        List<int[]> scalars = scalars(editor.text);
+        int kind = random.nextInt(4);
+        if (kind == 0 && !scalars.isEmpty()) {
+            int[] scalar = scalars.get(random.nextInt(scalars.size()));
+            editor.remove(scalar[0], scalar[1] - scalar[0]);
+            editor.type(scalar[0], randomValue(random, 2), random);
+        } else if (kind == 1 && !scalars.isEmpty()) {
+            int[] scalar = scalars.get(random.nextInt(scalars.size()));
+            editor.type(scalar[random.nextInt(2)], String.valueOf(random.nextInt(10)), random);
+        } else {
+            int offset = random.nextInt(editor.text.length() + 1);
+            int removed = Math.min(random.nextInt(3), editor.text.length() - offset);
+            if (removed > 0) {
+                editor.remove(offset, removed);
+            }
+            if (random.nextInt(3) > 0) {
+                editor.insert(offset, String.valueOf(" ,1[]{}\":a".charAt(random.nextInt(10))));
+            }
+        }
+    }
+
+    private static String randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 3 ? 4 : 7)) {
+            case 0:
+                return String.valueOf(random.nextInt(2000) - 1000);
+            case 1:
+                return "\"s" + random.nextInt(5) + "\"";
+            case 2:
+                return random.nextBoolean() ? "true" : "null";
+            case 3:
+                return random.nextInt(100) + "." + random.nextInt(10);
+            case 4:
+            case 5:
+                StringBuilder object = new StringBuilder("{");
+                int properties = random.nextInt(6);
+                for (int i = 0; i < properties; i++) {
+                    object.append(i == 0 ? "" : ", ").append("\"p").append(random.nextInt(8)).append("\": ")
+                        .append(randomValue(random, depth + 1));
+                }
+                return object.append('}').toString();
+            default:
+                StringBuilder array = new StringBuilder("[");
+                int elements = random.nextInt(12);
+                for (int i = 0; i < elements; i++) {
+                    array.append(i == 0 ? "" : ",").append(randomValue(random, depth + 1));
+                }
+                return array.append(']').toString();
+        }
+    }
+
+    /**
+     * @return 文本中格式良好的前缀里每个标量 token 的起止位置
+     */
+    private static List<int[]> scalars(String text) {
+        List<int[]> spans = new ArrayList<>();
+        try (JsonParser parser = new JsonFactory().createParser(text)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token.isScalarValue()) {
+                    int start = (int)parser.getTokenLocation().getCharOffset();
+                    parser.finishToken();
+                    spans.add(new int[]{start, (int)parser.getCurrentLocation().getCharOffset()});
+                }
+            }
+        } catch (IOException e) {
+            // 只使用格式良好的部分
+        }
+        return spans;
+    }
+
+    /**
+     * 同时修改文本并把编辑报告给增量推断，每次推断后与完整解析的结果比较。
+     */
+    private static final class Editor {
+        private final PreviewInference inference;
+        private String text;
+        private boolean batching;
+
+        Editor(String text, int threshold) throws Exception {
+            this.text = text;
+            this.inference = new PreviewInference(ArraySampling.ALL, threshold);
+            check();
+        }
+
+        void replace(String target, int removed, String inserted) throws Exception {
+            int offset = text.indexOf(target);
+            edit(offset, inserted, removed);
+            check();
+        }
+
+        void insert(int offset, String inserted) throws Exception {
+            edit(offset, inserted, 0);
+            check();
+        }
+
+        void remove(int offset, int removed) throws Exception {
+            edit(offset, "", removed);
+            check();
+        }
+
+        void type(int offset, String inserted) throws Exception {
+            for (int i = 0; i < inserted.length(); i++) {
+                insert(offset + i, inserted.substring(i, i + 1));
+            }
+        }
+
+        /**
+         * 逐个字符地输入，只在部分按键之后推断，其余的编辑累积到下一次推断。
+         */
+        void type(int offset, String inserted, Random random) throws Exception {
+            for (int i = 0; i < inserted.length(); i++) {
+                edit(offset + i, inserted.substring(i, i + 1), 0);
+                if (random.nextInt(4) == 0) {
+                    check();
+                }
+            }
+            check();
+        }
+
+        void batch(Edits edits) throws Exception {
+            batching = true;
+            edits.run();
+            batching = false;
+            check();
+        }
+
+        void edit(int offset, String inserted, int removed) {
+            text = text.substring(0, offset) + inserted + text.substring(offset + removed);
+            inference.edit(offset, inserted.length(), removed);
+        }
+
+        void check() throws Exception {
+            if (batching) {
+                return;
+            }
+            assertEquals(fullParse(text), incremental(), text);
+        }
+
+        private Object incremental() throws Exception {
+            try {
+                return render(inference.infer(PreviewInference.Source.of(text), NOT_CANCELED));
+            } catch (IOException e) {
+                return MALFORMED;
+            }
+        }
+
+        /**
+         * 根值是对象或数组时直接用 {@link ShapeReader} 解析，否则用不分段的新实例解析。
+         */
+        private static Object fullParse(String text) throws Exception {
+            String trimmed = text.trim();
+            if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+                try {
+                    return render(Shapes.read(text, ArraySampling.ALL));
+                } catch (RuntimeException e) {
+                    if (e.getCause() instanceof IOException) {
+                        return MALFORMED;
+                    }
+                    throw e;
+                }
+            }
+            try {
+                return render(new PreviewInference(ArraySampling.ALL, Integer.MAX_VALUE)
+                    .infer(PreviewInference.Source.of(text), NOT_CANCELED));
+            } catch (IOException e) {
+                return MALFORMED;
+            }
+        }
+
+        /**
+         * 渲染形状生成的类。编辑中的文本可能含有无法生成类的属性（例如空属性名），此时比较生成失败的原因。
+         */
+        private static Object render(JsonShape shape) throws Exception {
+            try {
+                return Shapes.render(shape, Shapes.DETAILED);
+            } catch (RuntimeException e) {
+                return e.toString();
+            }
+        }
+    }
+
+    /**
+     * 一组不立即推断的编辑
+     */
+    private interface Edits {
+        void run() throws Exception;
+    }
+}
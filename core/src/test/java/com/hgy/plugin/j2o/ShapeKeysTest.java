@@ -0,0 +1,116 @@
+package com.hgy.plugin.j2o;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ShapeKeys} 的测试：生成相同字段的对象形状得到相同的编号，字段类型有任何不同时编号不同。
+ *
+ * @author hgy
+ * @since 2026-10-16 21:34:51
+ */
+class ShapeKeysTest {
+
+    @Test
+    void ignoresPropertyOrder() {
+        ShapeKeys keys = new ShapeKeys(new GenerateOptions());
+        assertEquals(keys.idOf(object("{\"a\": 1, \"b\": \"x\", \"c\": {\"d\": true}}")),
+            keys.idOf(object("{\"c\": {\"d\": false}, \"b\": \"y\", \"a\": 2}")));
+    }
+
+    @Test
+    void distinguishesFieldTypes() {
+        ShapeKeys keys = new ShapeKeys(new GenerateOptions());
+        int id = keys.idOf(object("{\"a\": 1}"));
+        assertNotEquals(id, keys.idOf(object("{\"a\": 1.5}")));
+        assertNotEquals(id, keys.idOf(object("{\"a\": \"1\"}")));
+        assertNotEquals(id, keys.idOf(object("{\"b\": 1}")));
+        assertNotEquals(id, keys.idOf(object("{\"a\": 1, \"b\": 1}")));
+        assertNotEquals(id, keys.idOf(object("{\"a\": [1]}")));
+        // 嵌套对象按其自身的编号区分
+        assertNotEquals(keys.idOf(object("{\"a\": {\"x\": 1}}")), keys.idOf(object("{\"a\": {\"x\": \"1\"}}")));
+    }
+
+    @Test
+    void distinguishesPrimitiveFields() {
+        ShapeKeys keys = new ShapeKeys(new GenerateOptions());
+        int primitive = keys.idOf(element("[{\"a\": 1}, {\"a\": 2}]"));
+        assertNotEquals(primitive, keys.idOf(element("[{\"a\": 1}, {\"a\": null}]")));
+        assertNotEquals(primitive, keys.idOf(element("[{\"a\": 1}, {}]")));
+    }
+
+    @Test
+    void distinguishesNarrowedNumbersOnlyWhenNarrowing() {
+        String small = "{\"a\": 1}";
+        String large = "{\"a\": 100000}";
+
+        ShapeKeys narrowing = new ShapeKeys(new GenerateOptions().withNarrowNumbers(true));
+        assertNotEquals(narrowing.idOf(object(small)), narrowing.idOf(object(large)));
+
+        ShapeKeys wide = new ShapeKeys(new GenerateOptions());
+        assertEquals(wide.idOf(object(small)), wide.idOf(object(large)));
+    }
+
+    @Test
+    void distinguishesEnumValuesOnlyWhenGeneratingEnums() {
+        String openClosed = "[{\"s\": \"open\"}, {\"s\": \"closed\"}, {\"s\": \"open\"}, {\"s\": \"closed\"}]";
+        String closedOpen = "[{\"s\": \"closed\"}, {\"s\": \"open\"}, {\"s\": \"closed\"}, {\"s\": \"open\"}]";
+        String onOff = "[{\"s\": \"on\"}, {\"s\": \"off\"}, {\"s\": \"on\"}, {\"s\": \"off\"}]";
+
+        ShapeKeys enums = new ShapeKeys(new GenerateOptions().withStringEnums(true));
+        assertEquals(enums.idOf(element(openClosed)), enums.idOf(element(closedOpen)));
+        assertNotEquals(enums.idOf(element(openClosed)), enums.idOf(element(onOff)));
+
+        ShapeKeys strings = new ShapeKeys(new GenerateOptions());
+        assertEquals(strings.idOf(element(openClosed)), strings.idOf(element(onOff)));
+    }
+
+    @Test
+    void distinguishesPrimitiveArraysOnlyWhenGeneratingThem() {
+        String values = "{\"a\": [1, 2]}";
+        String nullable = "{\"a\": [1, null]}";
+
+        ShapeKeys primitiveArrays = new ShapeKeys(new GenerateOptions().withPrimitiveArrays(true));
+        assertNotEquals(primitiveArrays.idOf(object(values)), primitiveArrays.idOf(object(nullable)));
+
+        ShapeKeys lists = new ShapeKeys(new GenerateOptions());
+        assertEquals(lists.idOf(object(values)), lists.idOf(object(nullable)));
+    }
+
+    @Test
+    void enumKeyIgnoresOrderAndIsUnambiguous() {
+        assertEquals(ShapeKeys.enumKey(List.of("b", "a")), ShapeKeys.enumKey(List.of("a", "b")));
+        assertNotEquals(ShapeKeys.enumKey(List.of("ab")), ShapeKeys.enumKey(List.of("a", "b")));
+        assertNotEquals(ShapeKeys.enumKey(List.of("1:a")), ShapeKeys.enumKey(List.of("1", "a")));
+    }
+
+    @Test
+    void sameShapesShareOneGeneratedClass() throws Exception {
+        String json = "{\"home\": {\"street\": \"a\", \"city\": \"b\"}, \"work\": {\"city\": \"c\", \"street\": \"d\"},"
+            + " \"other\": {\"city\": \"e\"}}";
+        Map<String, String> files = Shapes.text(new GenerateObject("sample", GenerationProgress.NONE)
+            .generateFromJson("Root", json, new GenerateOptions()));
+
+        assertEquals(List.of("sample/Home.java", "sample/Other.java", "sample/Root.java"),
+            files.keySet().stream().sorted().collect(Collectors.toList()));
+        String root = files.get("sample/Root.java");
+        assertTrue(root.contains("private Home work;"), root);
+        assertFalse(root.contains("private Home other;"), root);
+    }
+
+    private static JsonShape object(String json) {
+        return Shapes.read(json, ArraySampling.ALL);
+    }
+
+    private static JsonShape element(String json) {
+        return Shapes.read(json, ArraySampling.ALL).getElement();
+    }
+}
@@ -0,0 +1,178 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link ShapeReader} 的测试：各采样策略选中的元素，以及并行分区推断与顺序推断的结果一致。
+ *
+ * @author hgy
+ * @since 2026-10-16 21:26:08
+ */
+class ShapeReaderTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void allMergesEveryElement() {
+        assertEquals(range(0, 100), sampled(100, ArraySampling.ALL));
+    }
+
+    @Test
+    void firstNMergesOnlyTheFirstElements() {
+        assertEquals(range(0, 10), sampled(100, new ArraySampling(ArraySampling.Strategy.FIRST_N, 10)));
+        assertEquals(range(0, 5), sampled(5, new ArraySampling(ArraySampling.Strategy.FIRST_N, 10)));
+    }
+
+    @Test
+    void strideDoublesTheStepAfterEachRound() {
+        // 前 8 个逐个采样，之后每采满 4 个步长加倍
+        List<Integer> expected = new ArrayList<>(range(0, 8));
+        expected.addAll(List.of(8, 10, 12, 14, 16, 20, 24, 28, 32, 40, 48, 56, 64, 80, 96));
+        assertEquals(expected, sampled(100, new ArraySampling(ArraySampling.Strategy.STRIDE, 8)));
+    }
+
+    @Test
+    void reservoirSamplesAFixedNumberOfElementsDeterministically() {
+        ArraySampling sampling = new ArraySampling(ArraySampling.Strategy.RESERVOIR, 10);
+        List<Integer> sample = sampled(1000, sampling);
+
+        assertEquals(10, sample.size());
+        assertEquals(10, new LinkedHashSet<>(sample).size());
+        assertTrue(sample.stream().allMatch(index -> index >= 0 && index < 1000));
+        assertTrue(sample.stream().anyMatch(index -> index >= 10), "only the first elements were sampled");
+        assertEquals(sample, sampled(1000, sampling));
+        // 短数组的所有元素都进入蓄水池
+        assertEquals(range(0, 7), sampled(7, sampling));
+    }
+
+    @Test
+    void nestedArraysAreSampledIndependently() {
+        JsonShape shape = Shapes.read("[[{\"a\": 1}, {\"b\": 1}], [{\"c\": 1}, {\"d\": 1}]]",
+            new ArraySampling(ArraySampling.Strategy.FIRST_N, 1));
+        assertEquals(Set.of("a"), shape.getElement().getElement().getProperties().keySet());
+
+        shape = Shapes.read("[[{\"a\": 1}, {\"b\": 1}], [{\"c\": 1}, {\"d\": 1}]]",
+            new ArraySampling(ArraySampling.Strategy.FIRST_N, 2));
+        assertEquals(Set.of("a", "b", "c", "d"), shape.getElement().getElement().getProperties().keySet());
+    }
+
+    @Test
+    void partitionedInferenceMatchesSequentialInference() throws Exception {
+        String json = largeArray(new Random(7), 5000);
+        for (ArraySampling sampling : List.of(ArraySampling.ALL,
+            new ArraySampling(ArraySampling.Strategy.FIRST_N, 3000),
+            new ArraySampling(ArraySampling.Strategy.STRIDE, 1500),
+            new ArraySampling(ArraySampling.Strategy.RESERVOIR, 2500))) {
+            JsonShape sequential = Shapes.read(json, sampling, null);
+            JsonShape partitioned = Shapes.read(json, sampling, pool);
+
+            assertEquals(new ArrayList<>(sequential.getElement().getProperties().keySet()),
+                new ArrayList<>(partitioned.getElement().getProperties().keySet()), sampling.getStrategy().name());
+            assertEquals(Shapes.render(sequential, Shapes.DETAILED), Shapes.render(partitioned, Shapes.DETAILED),
+                sampling.getStrategy().name());
+        }
+    }
+
+    @Test
+    void partitionedRecordsMatchSequentialRecords() throws Exception {
+        String json = largeArray(new Random(11), 3000);
+        String lines = json.substring(1, json.length() - 1).replace("}, {", "}\n{");
+
+        JsonShape sequential = readSequence(lines, null);
+        JsonShape partitioned = readSequence(lines, pool);
+        assertEquals(Shapes.render(sequential, Shapes.DETAILED), Shapes.render(partitioned, Shapes.DETAILED));
+        // 记录与数组元素的合并结果相同
+        assertEquals(Shapes.render(Shapes.read(json, ArraySampling.ALL), Shapes.DETAILED),
+            Shapes.render(sequential, Shapes.DETAILED));
+    }
+
+    @Test
+    void countsValuesInPartitions() throws IOException {
+        String json = largeArray(new Random(3), 4000);
+        assertEquals(valueCount(json, null), valueCount(json, pool));
+        assertNotEquals(0, valueCount(json, null));
+    }
+
+    /**
+     * 读取第 i 个元素为 {@code {"pi": i}} 的数组，由元素形状的属性得出被采样的元素下标。
+     */
+    private static List<Integer> sampled(int size, ArraySampling sampling) {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < size; i++) {
+            json.add("{\"p" + i + "\": " + i + "}");
+        }
+        JsonShape element = Shapes.read(json.toString(), sampling).getElement();
+        return element.getProperties().keySet().stream()
+            .map(name -> Integer.parseInt(name.substring(1)))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * 生成元素结构随下标变化的大数组：属性在不同的分区中首次出现，数值类型、null 和枚举值在后面的分区中才改变。
+     */
+    private static String largeArray(Random random, int size) {
+        StringJoiner array = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < size; i++) {
+            StringJoiner element = new StringJoiner(", ", "{", "}");
+            element.add("\"id\": " + i);
+            element.add("\"state\": \"" + (i < 2000 ? "s" + i % 3 : "s" + i % 5) + "\"");
+            if (i % 7 == 0 || i > 3500) {
+                element.add("\"score\": " + (i > 2500 ? random.nextInt(100) + ".5" : random.nextInt(100)));
+            }
+            if (i >= 1500 && i % 2 == 0) {
+                element.add("\"late" + i / 1000 + "\": " + (i % 4 == 0 ? "null" : "true"));
+            }
+            element.add("\"tags\": [" + (i % 3 == 0 ? "" : "{\"t\": " + i + "}") + "]");
+            element.add("\"pair\": [" + i + ", " + (i > 4000 ? "70000" : "1") + "]");
+            array.add(element.toString());
+        }
+        return array.toString();
+    }
+
+    private static JsonShape readSequence(String json, ForkJoinPool pool) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            return new ShapeReader(ArraySampling.ALL, pool).readSequence(parser);
+        }
+    }
+
+    private static long valueCount(String json, ForkJoinPool pool) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            ShapeReader reader = new ShapeReader(ArraySampling.ALL, pool);
+            reader.read(parser);
+            return reader.getValueCount();
+        }
+    }
+}
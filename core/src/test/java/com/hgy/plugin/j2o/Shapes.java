@@ -0,0 +1,88 @@
+package com.hgy.plugin.j2o;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.sun.codemodel.JCodeModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 测试中推断形状和渲染生成类的辅助方法。
+ * <p>
+ * 形状没有 equals，两个形状是否相同按它们生成的源代码比较，这也是形状唯一对外可见的结果。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 21:05:12
+ */
+final class Shapes {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 比较形状时使用的生成选项，打开所有依赖形状细节的选项
+     */
+    static final GenerateOptions DETAILED = new GenerateOptions()
+        .withNarrowNumbers(true)
+        .withStringEnums(true)
+        .withPrimitiveArrays(true);
+
+    private Shapes() {
+    }
+
+    /**
+     * 顺序推断 JSON 文本的形状。
+     *
+     * @param json     JSON 文本
+     * @param sampling 数组元素采样策略
+     * @return 根值的形状
+     */
+    static JsonShape read(String json, ArraySampling sampling) {
+        return read(json, sampling, null);
+    }
+
+    /**
+     * 推断 JSON 文本的形状。
+     *
+     * @param json     JSON 文本
+     * @param sampling 数组元素采样策略
+     * @param pool     并行推断使用的线程池，为 null 时顺序推断
+     * @return 根值的形状
+     */
+    static JsonShape read(String json, ArraySampling sampling, ForkJoinPool pool) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return new ShapeReader(sampling, pool).read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 渲染形状生成的所有类。
+     *
+     * @param shape   根值的形状
+     * @param options 生成选项
+     * @return 相对路径到源代码的映射，按渲染顺序排列
+     * @throws Exception 生成失败
+     */
+    static Map<String, String> render(JsonShape shape, GenerateOptions options) throws Exception {
+        JCodeModel model = new GenerateObject("sample", GenerationProgress.NONE).generateModel(shape, "Root", options);
+        GeneratedSources sources = new GeneratedSources();
+        model.build(sources);
+        return text(sources);
+    }
+
+    /**
+     * @param sources 渲染出的源文件
+     * @return 相对路径到源代码的映射，按渲染顺序排列
+     */
+    static Map<String, String> text(GeneratedSources sources) {
+        Map<String, String> files = new LinkedHashMap<>();
+        sources.getFiles().forEach((path, content) -> files.put(path, new String(content, StandardCharsets.UTF_8)));
+        return files;
+    }
+}
@@ -0,0 +1,42 @@
+
+package sample;
+
+import javax.annotation.Generated;
+import com.google.gson.annotations.Expose;
+
+@Generated("net.hexar.Json2Object")
+@SuppressWarnings("unused")
+public class Address {
+
+    @Expose
+    private String city;
+    @Expose
+    private String street;
+    @Expose
+    private String zip;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public void setStreet(String street) {
+        this.street = street;
+    }
+
+    public String getZip() {
+        return zip;
+    }
+
+    public void setZip(String zip) {
+        this.zip = zip;
+    }
+
+}
@@ -0,0 +1,32 @@
+
+package sample;
+
+import javax.annotation.Generated;
+import com.google.gson.annotations.Expose;
+
+@Generated("net.hexar.Json2Object")
+@SuppressWarnings("unused")
+public class Item {
+
+    @Expose
+    private long qty;
+    @Expose
+    private String sku;
+
+    public long getQty() {
+        return qty;
+    }
+
+    public void setQty(long qty) {
+        this.qty = qty;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+}
@@ -0,0 +1,43 @@
+
+package sample;
+
+import java.util.List;
+import javax.annotation.Generated;
+import com.google.gson.annotations.Expose;
+
+@Generated("net.hexar.Json2Object")
+@SuppressWarnings("unused")
+public class Order {
+
+    @Expose
+    private List<Item> items;
+    @Expose
+    private long orderId;
+    @Expose
+    private double total;
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(long orderId) {
+        this.orderId = orderId;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+}
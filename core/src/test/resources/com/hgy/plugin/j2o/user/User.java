@@ -0,0 +1,124 @@
+
+package sample;
+
+import java.util.List;
+import javax.annotation.Generated;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+@Generated("net.hexar.Json2Object")
+@SuppressWarnings("unused")
+public class User {
+
+    @Expose
+    private boolean active;
+    @Expose
+    private Address address;
+    @SerializedName("created-at")
+    private String createdAt;
+    @Expose
+    private String email;
+    @SerializedName("first_name")
+    private String firstName;
+    @Expose
+    private long id;
+    @Expose
+    private String name;
+    @Expose
+    private Object nothing;
+    @Expose
+    private List<Order> orders;
+    @Expose
+    private double score;
+    @Expose
+    private List<String> tags;
+
+    public boolean getActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public void setAddress(Address address) {
+        this.address = address;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Object getNothing() {
+        return nothing;
+    }
+
+    public void setNothing(Object nothing) {
+        this.nothing = nothing;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+}
@@ -0,0 +1,35 @@
+plugins {
+    `java-gradle-plugin`
+}
+
+group = "com.hgy.plugin"
+version = "1.0-SNAPSHOT"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":core"))
+}
+
+// Generates classes from JSON samples at build time:
+// plugins { id("com.hgy.plugin.json2object") }
+// json2object { packageName.set("com.example.dto") }
+gradlePlugin {
+    plugins {
+        create("json2object") {
+            id = "com.hgy.plugin.json2object"
+            implementationClass = "com.hgy.plugin.j2o.gradle.Json2ObjectPlugin"
+            displayName = "JSON2Object"
+            description = "Generates Java classes from JSON samples with up-to-date checks and build cache support."
+        }
+    }
+}
+
+tasks {
+    withType<JavaCompile> {
+        sourceCompatibility = "11"
+        targetCompatibility = "11"
+    }
+}
@@ -0,0 +1,191 @@
+package com.hgy.plugin.j2o.gradle;
+
+import com.hgy.plugin.j2o.ArraySampling;
+import com.hgy.plugin.j2o.GenerateOptions;
+import com.hgy.plugin.j2o.JsonSample;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在构建时从样本目录中的 JSON 样本生成类。
+ * <p>
+ * 样本按相对路径和内容作为输入，生成的源目录作为输出，因此任务可以被判定为最新并从构建缓存中恢复。
+ * 增量执行时只重新推断新增和修改的样本，删除的样本对应的包被清除；每个样本在独立的工作项中并行生成。
+ * </p>
+ *
+ * @author hgy
+ * @since 2026-10-16 17:24:50
+ */
+@CacheableTask
+public abstract class GenerateJsonObjectsTask extends DefaultTask {
+    /**
+     * @return 样本目录，其中的 .json、.jsonl 和 .ndjson 文件都会被生成
+     */
+    @Incremental
+    @InputFiles
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getSampleDirectory();
+
+    /**
+     * @return 所有样本的基础包名，每个样本生成到以其文件名命名的子包中
+     */
+    @Input
+    public abstract Property<String> getPackageName();
+
+    @Input
+    public abstract Property<Boolean> getGenerateBuilders();
+
+    @Input
+    public abstract Property<Boolean> getUseMPrefix();
+
+    @Input
+    public abstract Property<Boolean> getGenerateTypeAdapters();
+
+    /**
+     * @return 目标 JSON 库：gson 或 jackson
+     */
+    @Input
+    public abstract Property<String> getTarget();
+
+    @Input
+    public abstract Property<Boolean> getPrimitiveArrays();
+
+    @Input
+    public abstract Property<Boolean> getNarrowNumbers();
+
+    /**
+     * @return 收窄数值时的安全系数，至少为 1
+     */
+    @Input
+    public abstract Property<Double> getNumberMargin();
+
+    @Input
+    public abstract Property<Boolean> getStringEnums();
+
+    @Input
+    public abstract Property<Boolean> getImmutable();
+
+    /**
+     * @return 数组采样策略：all、first、stride 或 reservoir
+     */
+    @Input
+    public abstract Property<String> getSampling();
+
+    @Input
+    public abstract Property<Integer> getSampleSize();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDirectory();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @TaskAction
+    public void generate(InputChanges changes) throws IOException {
+        Path outputDirectory = getOutputDirectory().get().getAsFile().toPath();
+        String basePackage = getPackageName().get();
+
+        // 每次都检查所有样本的包名，新增的样本可能与未修改的样本冲突
+        Map<Path, JsonSample> samples = new HashMap<>();
+        try {
+            ArraySampling.parse(getSampling().get(), getSampleSize().get());
+            GenerateOptions.Target.parse(getTarget().get());
+            new GenerateOptions().withNumberMargin(getNumberMargin().get());
+            for (JsonSample sample : JsonSample.findAll(getSampleDirectory().get().getAsFile().toPath(), basePackage)) {
+                samples.put(sample.getFile(), sample);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidUserDataException(e.getMessage(), e);
+        }
+
+        WorkQueue queue = getWorkerExecutor().noIsolation();
+        if (!changes.isIncremental()) {
+            // 选项变化或没有可用的历史时，清除旧的输出并生成所有样本
+            getFileSystemOperations().delete(spec -> spec.delete(outputDirectory.toFile()));
+            for (JsonSample sample : samples.values()) {
+                submit(queue, sample);
+            }
+            return;
+        }
+
+        // 先同步清除被删除样本的包，再提交新增和修改的样本，避免删除刚生成的文件
+        List<JsonSample> modified = new ArrayList<>();
+        Set<String> packages = new HashSet<>();
+        for (JsonSample sample : samples.values()) {
+            packages.add(sample.getPackageName());
+        }
+        for (FileChange change : changes.getFileChanges(getSampleDirectory())) {
+            if (change.getFileType() != FileType.FILE) {
+                continue;
+            }
+            Path file = change.getFile().toPath();
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                JsonSample removed = JsonSample.of(file, basePackage);
+                if (removed != null && !packages.contains(removed.getPackageName())) {
+                    getFileSystemOperations().delete(spec -> spec.delete(removed.packageDirectory(outputDirectory)));
+                }
+            } else if (samples.containsKey(file)) {
+                modified.add(samples.get(file));
+            }
+        }
+        for (JsonSample sample : modified) {
+            submit(queue, sample);
+        }
+    }
+
+    /**
+     * 提交一个样本的生成。
+     */
+    private void submit(WorkQueue queue, JsonSample sample) {
+        queue.submit(GenerateSampleAction.class, parameters -> {
+            parameters.getSampleFile().set(sample.getFile().toFile());
+            parameters.getPackageName().set(getPackageName());
+            parameters.getGenerateBuilders().set(getGenerateBuilders());
+            parameters.getUseMPrefix().set(getUseMPrefix());
+            parameters.getGenerateTypeAdapters().set(getGenerateTypeAdapters());
+            parameters.getTarget().set(getTarget());
+            parameters.getPrimitiveArrays().set(getPrimitiveArrays());
+            parameters.getNarrowNumbers().set(getNarrowNumbers());
+            parameters.getNumberMargin().set(getNumberMargin());
+            parameters.getStringEnums().set(getStringEnums());
+            parameters.getImmutable().set(getImmutable());
+            parameters.getSampling().set(getSampling());
+            parameters.getSampleSize().set(getSampleSize());
+            parameters.getOutputDirectory().set(getOutputDirectory());
+        });
+    }
+}
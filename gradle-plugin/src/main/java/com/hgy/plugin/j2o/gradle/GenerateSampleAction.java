@@ -0,0 +1,93 @@
+package com.hgy.plugin.j2o.gradle;
+
+import com.hgy.plugin.j2o.ArraySampling;
+import com.hgy.plugin.j2o.GenerateObject;
+import com.hgy.plugin.j2o.GenerateOptions;
+import com.hgy.plugin.j2o.GeneratedSources;
+import com.hgy.plugin.j2o.GenerationProgress;
+import com.hgy.plugin.j2o.JsonSample;
+import com.hgy.plugin.j2o.WriteReport;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.nio.file.Path;
+
+/**
+ * 在工作线程中生成一个样本并写入输出目录，删除该样本的包中不再生成的类。
+ *
+ * @author hgy
+ * @since 2026-10-16 17:31:06
+ */
+public abstract class GenerateSampleAction implements WorkAction<GenerateSampleAction.Parameters> {
+    private static final Logger LOG = Logging.getLogger(GenerateSampleAction.class);
+
+    /**
+     * 生成一个样本所需的参数。
+     */
+    public interface Parameters extends WorkParameters {
+        RegularFileProperty getSampleFile();
+
+        Property<String> getPackageName();
+
+        Property<Boolean> getGenerateBuilders();
+
+        Property<Boolean> getUseMPrefix();
+
+        Property<Boolean> getGenerateTypeAdapters();
+
+        Property<String> getTarget();
+
+        Property<Boolean> getPrimitiveArrays();
+
+        Property<Boolean> getNarrowNumbers();
+
+        Property<Double> getNumberMargin();
+
+        Property<Boolean> getStringEnums();
+
+        Property<Boolean> getImmutable();
+
+        Property<String> getSampling();
+
+        Property<Integer> getSampleSize();
+
+        DirectoryProperty getOutputDirectory();
+    }
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        Path file = parameters.getSampleFile().get().getAsFile().toPath();
+        Path outputDirectory = parameters.getOutputDirectory().get().getAsFile().toPath();
+        JsonSample sample = JsonSample.of(file, parameters.getPackageName().get());
+
+        GenerateOptions options = new GenerateOptions()
+            .withGenerateBuilders(parameters.getGenerateBuilders().get())
+            .withUseMPrefix(parameters.getUseMPrefix().get())
+            .withTarget(GenerateOptions.Target.parse(parameters.getTarget().get()))
+            .withGenerateTypeAdapters(parameters.getGenerateTypeAdapters().get())
+            .withPrimitiveArrays(parameters.getPrimitiveArrays().get())
+            .withNarrowNumbers(parameters.getNarrowNumbers().get())
+            .withNumberMargin(parameters.getNumberMargin().get())
+            .withStringEnums(parameters.getStringEnums().get())
+            .withImmutable(parameters.getImmutable().get())
+            .withArraySampling(ArraySampling.parse(parameters.getSampling().get(), parameters.getSampleSize().get()));
+
+        GenerateObject generateObject = new GenerateObject(sample.getPackageName(), GenerationProgress.NONE);
+        try {
+            GeneratedSources sources = sample.generate(generateObject, options);
+            WriteReport report = sources.writeTo(outputDirectory);
+            sources.deleteStale(sample.packageDirectory(outputDirectory), outputDirectory, report);
+            LOG.info("Generated {}.{} from {}: {}; {}", sample.getPackageName(), sample.getClassName(),
+                file.getFileName(), report.summary(), generateObject.getMetrics());
+        } catch (Exception e) {
+            throw new GradleException("Failed to generate classes from " + file, e);
+        }
+    }
+}
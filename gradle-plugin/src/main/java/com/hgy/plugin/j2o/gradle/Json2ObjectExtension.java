@@ -0,0 +1,82 @@
+package com.hgy.plugin.j2o.gradle;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+
+/**
+ * 构建脚本中的 {@code json2object { }} 配置块。
+ *
+ * @author hgy
+ * @since 2026-10-16 17:18:42
+ */
+public abstract class Json2ObjectExtension {
+    /**
+     * @return 样本目录，默认为 src/main/json
+     */
+    public abstract DirectoryProperty getSampleDirectory();
+
+    /**
+     * @return 所有样本的基础包名，默认为空
+     */
+    public abstract Property<String> getPackageName();
+
+    /**
+     * @return 是否省略设置器并生成构建器，默认为 false
+     */
+    public abstract Property<Boolean> getGenerateBuilders();
+
+    /**
+     * @return 字段名是否使用 "m" 前缀，默认为 true
+     */
+    public abstract Property<Boolean> getUseMPrefix();
+
+    /**
+     * @return 是否生成不使用反射的 Gson TypeAdapter 和注册它们的 TypeAdapterFactory，默认为 false
+     */
+    public abstract Property<Boolean> getGenerateTypeAdapters();
+
+    /**
+     * @return 目标 JSON 库：gson 或 jackson，默认为 gson
+     */
+    public abstract Property<String> getTarget();
+
+    /**
+     * @return 元素从不为 null 的布尔和数值数组是否生成为基本类型数组，默认为 false
+     */
+    public abstract Property<Boolean> getPrimitiveArrays();
+
+    /**
+     * @return 是否按观察到的取值范围和精度将数值收窄为 short、int 或 float，默认为 false
+     */
+    public abstract Property<Boolean> getNarrowNumbers();
+
+    /**
+     * @return 收窄数值时的安全系数，观察值乘以该系数后仍须在所选类型的范围内，默认为 2
+     */
+    public abstract Property<Double> getNumberMargin();
+
+    /**
+     * @return 是否将取值很少且重复出现的字符串字段生成为枚举，默认为 false
+     */
+    public abstract Property<Boolean> getStringEnums();
+
+    /**
+     * @return 是否生成带有 final 字段、全参构造器、equals、hashCode 和 toString 的不可变值类，默认为 false
+     */
+    public abstract Property<Boolean> getImmutable();
+
+    /**
+     * @return 数组采样策略：all、first、stride 或 reservoir，默认为 all
+     */
+    public abstract Property<String> getSampling();
+
+    /**
+     * @return 数组采样数量，默认为 1000
+     */
+    public abstract Property<Integer> getSampleSize();
+
+    /**
+     * @return 生成的源目录，默认为 build/generated/sources/json2object/java/main
+     */
+    public abstract DirectoryProperty getOutputDirectory();
+}
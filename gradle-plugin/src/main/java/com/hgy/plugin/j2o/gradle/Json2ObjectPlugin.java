@@ -0,0 +1,65 @@
+package com.hgy.plugin.j2o.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+
+/**
+ * 注册 {@code generateJsonObjects} 任务；应用了 java 插件时，将生成的源目录加入 main 源集，
+ * 编译前会自动生成。生成的类默认使用 Gson 注解，项目需要在编译类路径中包含 Gson；
+ * 目标为 jackson 时需要包含 jackson-databind。
+ *
+ * @author hgy
+ * @since 2026-10-16 17:15:27
+ */
+public class Json2ObjectPlugin implements Plugin<Project> {
+    @Override
+    public void apply(Project project) {
+        Json2ObjectExtension extension = project.getExtensions().create("json2object", Json2ObjectExtension.class);
+        extension.getSampleDirectory().convention(project.getLayout().getProjectDirectory().dir("src/main/json"));
+        extension.getPackageName().convention("");
+        extension.getGenerateBuilders().convention(false);
+        extension.getUseMPrefix().convention(true);
+        extension.getGenerateTypeAdapters().convention(false);
+        extension.getTarget().convention("gson");
+        extension.getPrimitiveArrays().convention(false);
+        extension.getNarrowNumbers().convention(false);
+        extension.getNumberMargin().convention(2.0);
+        extension.getStringEnums().convention(false);
+        extension.getImmutable().convention(false);
+        extension.getSampling().convention("all");
+        extension.getSampleSize().convention(1000);
+        extension.getOutputDirectory()
+            .convention(project.getLayout().getBuildDirectory().dir("generated/sources/json2object/java/main"));
+
+        TaskProvider<GenerateJsonObjectsTask> generate =
+            project.getTasks().register("generateJsonObjects", GenerateJsonObjectsTask.class, task -> {
+                task.setGroup("build");
+                task.setDescription("Generates classes from the JSON samples.");
+                task.getSampleDirectory().set(extension.getSampleDirectory());
+                task.getPackageName().set(extension.getPackageName());
+                task.getGenerateBuilders().set(extension.getGenerateBuilders());
+                task.getUseMPrefix().set(extension.getUseMPrefix());
+                task.getGenerateTypeAdapters().set(extension.getGenerateTypeAdapters());
+                task.getTarget().set(extension.getTarget());
+                task.getPrimitiveArrays().set(extension.getPrimitiveArrays());
+                task.getNarrowNumbers().set(extension.getNarrowNumbers());
+                task.getNumberMargin().set(extension.getNumberMargin());
+                task.getStringEnums().set(extension.getStringEnums());
+                task.getImmutable().set(extension.getImmutable());
+                task.getSampling().set(extension.getSampling());
+                task.getSampleSize().set(extension.getSampleSize());
+                task.getOutputDirectory().set(extension.getOutputDirectory());
+            });
+
+        // 源目录带有任务依赖，compileJava 会先执行生成
+        project.getPlugins().withType(JavaPlugin.class, java -> {
+            SourceSetContainer sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
+            sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getJava()
+                .srcDir(generate.flatMap(GenerateJsonObjectsTask::getOutputDirectory));
+        });
+    }
+}
@@ -1 +1,3 @@
-rootProject.name = "JSON2Object"
\ No newline at end of file
+rootProject.name = "JSON2Object"
+include("core")
+include("gradle-plugin")
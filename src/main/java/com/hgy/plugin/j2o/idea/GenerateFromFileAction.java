@@ -0,0 +1,118 @@
+package com.hgy.plugin.j2o.idea;
+
+import com.hgy.plugin.inspired.Inflector;
+import com.hgy.plugin.j2o.GenerateObject;
+import com.hgy.plugin.j2o.GenerateOptions;
+import com.hgy.plugin.j2o.GeneratedSources;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.nio.file.Path;
+
+/**
+ * 从项目中的 JSON 文件生成java类的action，文件直接流式读取，不经过对话框的文本区。
+ * JSON Lines 文件（.jsonl / .ndjson）中的所有记录合并为一个根类。
+ *
+ * @author hgy
+ * @since 2026-10-16 11:40:55
+ */
+public class GenerateFromFileAction extends AnAction {
+
+    @Override
+    public void actionPerformed(AnActionEvent event) {
+        Project project = event.getProject();
+        VirtualFile file = event.getData(LangDataKeys.VIRTUAL_FILE);
+
+        if (!isJsonFile(project, file)) {
+            return;
+        }
+        boolean jsonLines = isJsonLines(file);
+
+        // 选择生成类所在的包
+        VirtualFile packageFolder = FileChooser.chooseFile(
+            FileChooserDescriptorFactory.createSingleFolderDescriptor().withTitle("Select Target Package"), project,
+            file.getParent());
+        if (packageFolder == null) {
+            return;
+        }
+        if (ProjectRootManager.getInstance(project).getFileIndex().getPackageNameByDirectory(packageFolder) == null) {
+            Messages.showErrorDialog(project, packageFolder.getPath() + " is not inside a source root.",
+                "Codegen Failed");
+            return;
+        }
+
+        // 显示类名对话框，默认使用文件名的单数形式
+        String defaultClassName =
+            GenerateObject.formatClassName(Inflector.getInstance().singularize(file.getNameWithoutExtension()));
+        JsonEntryDialog dialog = new JsonEntryDialog(defaultClassName, (className, jsonText, options) -> {
+            // 显示后台进程指示器
+            ProgressManager.getInstance().run(new GenerateTask(project, packageFolder,
+                generateObject -> generate(generateObject, className, file, jsonLines, options)));
+        });
+        dialog.setLocationRelativeTo(null);
+        dialog.pack();
+        dialog.setVisible(true);
+    }
+
+    /**
+     * 本地文件通过内存映射读取，其他文件系统中的文件通过 VFS 读取。
+     *
+     * @param generateObject 生成器
+     * @param className      根类名
+     * @param file           JSON 或 JSON Lines 文件
+     * @param jsonLines      如果文件是 JSON Lines，则为 true
+     * @param options        生成选项
+     * @return 渲染出的源文件
+     * @throws Exception 读取、解析或生成失败
+     */
+    private static GeneratedSources generate(GenerateObject generateObject, String className, VirtualFile file,
+        boolean jsonLines, GenerateOptions options) throws Exception {
+        if (file.isInLocalFileSystem()) {
+            Path path = file.toNioPath();
+            return jsonLines ? generateObject.generateFromJsonLines(className, path, options) :
+                generateObject.generateFromJsonFile(className, path, options);
+        }
+        return generateObject.generateFromJsonStream(className, file.getName(), file.getLength(),
+            file::getInputStream, jsonLines, options);
+    }
+
+    /**
+     * @param project 项目
+     * @param file    选中的文件
+     * @return 如果选中的是 .json、.jsonl 或 .ndjson 文件，则为 true
+     */
+    private boolean isJsonFile(Project project, VirtualFile file) {
+        if (project == null || file == null || file.isDirectory()) {
+            return false;
+        }
+        return "json".equalsIgnoreCase(file.getExtension()) || isJsonLines(file);
+    }
+
+    /**
+     * @param file 选中的文件
+     * @return 如果选中的是 .jsonl 或 .ndjson 文件，则为 true
+     */
+    private boolean isJsonLines(VirtualFile file) {
+        String extension = file.getExtension();
+        return "jsonl".equalsIgnoreCase(extension) || "ndjson".equalsIgnoreCase(extension);
+    }
+
+    @Override
+    public void update(AnActionEvent event) {
+        VirtualFile file = event.getData(LangDataKeys.VIRTUAL_FILE);
+        boolean visible = isJsonFile(event.getProject(), file);
+        event.getPresentation().setVisible(visible);
+        if (visible) {
+            event.getPresentation()
+                .setText(isJsonLines(file) ? "Generate Object from JSON Lines" : "Generate Object from JSON File");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.hgy.plugin.j2o.idea;
+
+import com.hgy.plugin.j2o.GenerateObject;
+import com.hgy.plugin.j2o.GeneratedSources;
+import com.hgy.plugin.j2o.GenerationMetrics;
+import com.hgy.plugin.j2o.WriteReport;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 在后台生成类并通过 VFS 写入源根的任务。推断、生成和渲染都可以取消，
+ * 文件只在全部渲染完成后于一个写命令中写入，取消时不会留下写了一半的包。
+ *
+ * @author hgy
+ * @since 2026-10-16 11:26:08
+ */
+class GenerateTask extends Task.Backgroundable {
+    /**
+     * 通知组 ID，与 plugin.xml 中的注册一致
+     */
+    private static final String NOTIFICATION_GROUP = "JSON2Object";
+    private static final Logger LOG = Logger.getInstance(GenerateTask.class);
+
+    /**
+     * 使用给定的生成器执行一次生成。
+     */
+    interface Generation {
+        /**
+         * @param generateObject 生成到目标包中的生成器
+         * @return 渲染出的源文件
+         * @throws Exception 读取、解析或生成失败
+         */
+        GeneratedSources generate(GenerateObject generateObject) throws Exception;
+    }
+
+    /**
+     * 模块资源根
+     */
+    private final VirtualFile moduleSourceRoot;
+    /**
+     * 包名
+     */
+    private final String packageName;
+    private final Generation generation;
+
+    /**
+     * 构造器
+     *
+     * @param project       项目
+     * @param packageFolder 目标包目录
+     * @param generation    要执行的生成
+     */
+    GenerateTask(Project project, VirtualFile packageFolder, Generation generation) {
+        super(project, "JSON2Object Class Generation", true);
+        this.generation = generation;
+
+        // 获取模块源根和有效软件包名称
+        ProjectFileIndex fileIndex = ProjectRootManager.getInstance(project).getFileIndex();
+        this.moduleSourceRoot = fileIndex.getSourceRootForFile(packageFolder);
+        this.packageName = fileIndex.getPackageNameByDirectory(packageFolder);
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        // 生成类
+        GenerateObject generateObject = new GenerateObject(packageName, new IndicatorProgress(indicator));
+        GeneratedSources sources;
+        try {
+            sources = generation.generate(generateObject);
+        } catch (ProcessCanceledException e) {
+            // 取消时不渲染也不写入任何文件
+            throw e;
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null, e.toString(), "Codegen Failed", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+            return;
+        }
+
+        // 写入开始后不再响应取消，所有文件要么全部写入，要么全部不写
+        indicator.checkCanceled();
+
+        // 一次性写入所有变化的文件
+        GenerationMetrics metrics = generateObject.getMetrics();
+        WriteReport report;
+        try (GenerationMetrics.Scope ignored = metrics.begin(GenerationMetrics.Phase.WRITE)) {
+            report = writeToSourceRoot(sources);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, e.toString(), "Codegen Failed", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+            return;
+        }
+        LOG.info("Generated " + packageName + ": " + metrics);
+
+        NotificationGroupManager.getInstance().getNotificationGroup(NOTIFICATION_GROUP)
+            .createNotification("JSON2Object", report.toHtml(), NotificationType.INFORMATION)
+            .notify(myProject);
+    }
+
+    /**
+     * 在一个写命令中通过 VFS 将渲染出的文件写入源根，内容与已有文件相同的文件保持不变。
+     * 写入直接产生 VFS 事件，不需要再刷新磁盘，只有新增和修改的文件会被重新索引。
+     *
+     * @param sources 渲染出的源文件
+     * @return 新增、修改和未变化的文件
+     * @throws IOException 读写文件失败
+     */
+    private WriteReport writeToSourceRoot(GeneratedSources sources) throws IOException {
+        WriteReport report = new WriteReport();
+        IOException[] failure = new IOException[1];
+
+        // 写操作必须在事件分派线程中执行
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            try {
+                WriteCommandAction.writeCommandAction(myProject).withName("Generate Object from JSON")
+                    .compute(() -> write(sources.getFiles(), report));
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        }, ModalityState.defaultModalityState());
+
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return report;
+    }
+
+    /**
+     * 在写操作中写入所有文件。
+     *
+     * @param files  相对于源根的路径映射文件内容
+     * @param report 记录写入结果
+     * @return 记录写入结果
+     * @throws IOException 读写文件失败
+     */
+    private WriteReport write(Map<String, byte[]> files, WriteReport report) throws IOException {
+        Map<String, VirtualFile> directories = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            String path = entry.getKey();
+            byte[] content = entry.getValue();
+
+            // 查找或创建包目录
+            int separator = path.lastIndexOf('/');
+            String directoryPath = separator < 0 ? "" : path.substring(0, separator);
+            VirtualFile directory = directories.get(directoryPath);
+            if (directory == null) {
+                directory = directoryPath.isEmpty() ? moduleSourceRoot :
+                    VfsUtil.createDirectoryIfMissing(moduleSourceRoot, directoryPath);
+                directories.put(directoryPath, directory);
+            }
+
+            String fileName = path.substring(separator + 1);
+            VirtualFile file = directory.findChild(fileName);
+            if (file == null) {
+                directory.createChildData(this, fileName).setBinaryContent(content);
+                report.added(path);
+            } else if (GeneratedSources.sameContent(file.contentsToByteArray(), content)) {
+                report.unchanged(path);
+            } else {
+                file.setBinaryContent(content);
+                report.changed(path);
+            }
+        }
+        return report;
+    }
+
+    @Override
+    public void onCancel() {
+        NotificationGroupManager.getInstance().getNotificationGroup(NOTIFICATION_GROUP)
+            .createNotification("JSON2Object", "Generation cancelled, no files were written.",
+                NotificationType.INFORMATION)
+            .notify(myProject);
+    }
+}
@@ -0,0 +1,39 @@
+package com.hgy.plugin.j2o.idea;
+
+import com.hgy.plugin.j2o.GenerationProgress;
+import com.intellij.openapi.progress.ProgressIndicator;
+
+/**
+ * 在 IDE 的进度指示器上显示生成进度，取消时抛出 {@link com.intellij.openapi.progress.ProcessCanceledException}。
+ *
+ * @author hgy
+ * @since 2026-10-16 16:34:12
+ */
+final class IndicatorProgress implements GenerationProgress {
+    private final ProgressIndicator indicator;
+
+    IndicatorProgress(ProgressIndicator indicator) {
+        this.indicator = indicator;
+    }
+
+    @Override
+    public void setText(String text) {
+        indicator.setText(text);
+    }
+
+    @Override
+    public void setText2(String text) {
+        indicator.setText2(text);
+    }
+
+    @Override
+    public void setFraction(double fraction) {
+        indicator.setIndeterminate(false);
+        indicator.setFraction(fraction);
+    }
+
+    @Override
+    public void checkCanceled() {
+        indicator.checkCanceled();
+    }
+}
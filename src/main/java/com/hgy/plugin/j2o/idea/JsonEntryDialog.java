@@ -0,0 +1,651 @@
+package com.hgy.plugin.j2o.idea;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.hgy.plugin.j2o.ArraySampling;
+import com.hgy.plugin.j2o.GenerateObject;
+import com.hgy.plugin.j2o.GenerateOptions;
+import com.hgy.plugin.j2o.GeneratedSources;
+import com.hgy.plugin.j2o.JsonShape;
+import com.hgy.plugin.j2o.PreviewInference;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.sun.codemodel.JCodeModel;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.Theme;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 自定义对话框，允许用户输入 JSON 文本。
+ *
+ * @author hgy
+ * @since 2023-12-24 18:15:07
+ */
+public class JsonEntryDialog extends JDialog {
+    /**
+     * 当用户点击 "确定 "按钮时调用的监听器。
+     */
+    interface OnOkListener {
+        /**
+         * 当用户点击确定按钮时调用的回调。
+         *
+         * @param className 在对话框中输入的类名。
+         * @param jsonText  输入对话框的 JSON 文本，从文件生成时为 null。
+         * @param options   在对话框中选择的生成选项。
+         */
+        void onOk(String className, String jsonText, GenerateOptions options);
+    }
+
+    /**
+     * \w: 包含字母和下划线和数字0-9, 即: A-Za-z0-9_(注意\w多了一个下划线)
+     */
+    private static final Pattern CLASS_NAME_PATTERN = Pattern.compile("[A-Za-z][A-Za-z\\d]*");
+    /**
+     * 停止输入多久之后校验 JSON 文本，毫秒
+     */
+    private static final int VALIDATION_DELAY = 300;
+    /**
+     * 类名无效时预览使用的根类名
+     */
+    private static final String PREVIEW_ROOT_NAME = "Root";
+    /**
+     * 出错行的高亮颜色
+     */
+    private static final Color ERROR_HIGHLIGHT = new Color(0xFF, 0x40, 0x40, 0x60);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Data
+    /**
+     * 确认监听器
+     */
+    private final OnOkListener onOkListener;
+    /**
+     * 是否从文件生成，此时不需要输入 JSON 文本
+     */
+    private boolean fromFile;
+    /**
+     * 输入停止后触发 JSON 校验，每次修改都会重新计时
+     */
+    private final Timer validationTimer = new Timer(VALIDATION_DELAY, e -> validateJson());
+    /**
+     * JSON 文本的修改次数，用于取消和丢弃过期的校验
+     */
+    private final AtomicInteger jsonRevision = new AtomicInteger();
+    /**
+     * 当前的 JSON 文本是否已通过校验
+     */
+    private boolean jsonValid;
+    /**
+     * 输入停止后刷新预览，修改 JSON 文本、类名或生成选项都会重新计时
+     */
+    private final Timer previewTimer = new Timer(VALIDATION_DELAY, e -> updatePreview());
+    /**
+     * 预览的推断和渲染依次在该执行器中进行，文本编辑也按顺序交给它记录
+     */
+    private final ExecutorService previewExecutor =
+        AppExecutorUtil.createBoundedApplicationPoolExecutor("JSON2Object Preview", 1);
+    /**
+     * 缓存每个根成员的形状，只在预览执行器中访问
+     */
+    private PreviewInference previewInference;
+    /**
+     * 最近一次预览的进度，开始新的预览时取消上一次
+     */
+    private ProgressIndicator previewIndicator;
+
+    // 对话框
+    private JButton buttonCancel;
+    private JButton buttonOk;
+    private JTextField className;
+    private JPanel contentPane;
+    private JPanel jsonPanel;
+    private RSyntaxTextArea jsonText;
+    private RSyntaxTextArea previewText;
+    /**
+     * 使用M前缀
+     */
+    private JCheckBox useMPrefix;
+
+    private JCheckBox generateBuilders;
+    /**
+     * 生成 Gson TypeAdapter
+     */
+    private JCheckBox generateTypeAdapters;
+    /**
+     * 目标 JSON 库
+     */
+    private JComboBox<GenerateOptions.Target> target;
+    /**
+     * 生成基本类型数组
+     */
+    private JCheckBox primitiveArrays;
+    /**
+     * 收窄数值类型，使用默认的安全系数
+     */
+    private JCheckBox narrowNumbers;
+    /**
+     * 生成字符串枚举
+     */
+    private JCheckBox stringEnums;
+    /**
+     * 生成不可变的值类
+     */
+    private JCheckBox immutable;
+    /**
+     * 数组采样策略
+     */
+    private JComboBox<ArraySampling.Strategy> samplingStrategy;
+    /**
+     * 数组采样数量
+     */
+    private JSpinner sampleSize;
+
+    JsonEntryDialog(OnOkListener listener) {
+        // 设置监听器
+        onOkListener = listener;
+
+        // 设置主要内容
+        setContentPane(contentPane);
+        setModal(true);
+        getRootPane().setDefaultButton(buttonOk);
+
+        // 设置最小对话框尺寸
+        setMinimumSize(new Dimension(420, 200));
+
+        // 添加按钮监听器
+        buttonOk.addActionListener(e -> onOK());
+        buttonCancel.addActionListener(e -> onCancel());
+
+        // 点击十字时调用 onCancel()
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            public void windowClosing(WindowEvent e) {
+                onCancel();
+            }
+        });
+
+        // 在 ESCAPE 时调用 onCancel()
+        contentPane.registerKeyboardAction(e -> onCancel(), KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0),
+            JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+
+        // 启用/禁用确定按钮
+        buttonOk.setEnabled(false);
+        className.getDocument().addDocumentListener(new TextChangedListener(this::updateOkButton));
+        jsonText.getDocument().addDocumentListener(new TextChangedListener(this::onJsonChanged));
+        jsonText.getDocument().addDocumentListener(new PreviewEditListener());
+        validationTimer.setRepeats(false);
+        previewTimer.setRepeats(false);
+
+        // 设置语法高亮
+        jsonText.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JSON);
+        try {
+            Theme theme = Theme.load(getClass().getResourceAsStream("/themes/dark.xml"));
+            theme.apply(jsonText);
+            theme.apply(previewText);
+        } catch (IOException ignored) {
+        }
+        jsonText.setCodeFoldingEnabled(false);
+        previewText.setCodeFoldingEnabled(false);
+
+        // 设置数组采样选项
+        samplingStrategy.setModel(new DefaultComboBoxModel<>(ArraySampling.Strategy.values()));
+        target.setModel(new DefaultComboBoxModel<>(GenerateOptions.Target.values()));
+        sampleSize.setModel(new SpinnerNumberModel(1000, 1, Integer.MAX_VALUE, 100));
+        sampleSize.setEnabled(false);
+        samplingStrategy.addActionListener(
+            e -> sampleSize.setEnabled(samplingStrategy.getSelectedItem() != ArraySampling.Strategy.ALL));
+
+        // 生成选项变化时刷新预览，采样选项变化时需要重新推断
+        className.getDocument().addDocumentListener(new TextChangedListener(previewTimer::restart));
+        useMPrefix.addActionListener(e -> previewTimer.restart());
+        generateBuilders.addActionListener(e -> previewTimer.restart());
+        generateTypeAdapters.addActionListener(e -> previewTimer.restart());
+        primitiveArrays.addActionListener(e -> previewTimer.restart());
+        narrowNumbers.addActionListener(e -> previewTimer.restart());
+        stringEnums.addActionListener(e -> previewTimer.restart());
+        immutable.addActionListener(e -> previewTimer.restart());
+        target.addActionListener(e -> {
+            // TypeAdapter 只用于 Gson，Jackson 总是生成序列化器
+            generateTypeAdapters.setEnabled(target.getSelectedItem() == GenerateOptions.Target.GSON);
+            previewTimer.restart();
+        });
+        samplingStrategy.addActionListener(e -> resetPreviewInference());
+        sampleSize.addChangeListener(e -> resetPreviewInference());
+        resetPreviewInference();
+    }
+
+    /**
+     * 从文件生成时使用的对话框，只输入类名和生成选项。
+     *
+     * @param defaultClassName 默认类名
+     * @param listener         确认监听器
+     */
+    JsonEntryDialog(String defaultClassName, OnOkListener listener) {
+        this(listener);
+        fromFile = true;
+        jsonPanel.setVisible(false);
+        className.setText(defaultClassName);
+    }
+
+    private void onCancel() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        // 停止计时并使在途的校验和预览过期
+        validationTimer.stop();
+        previewTimer.stop();
+        jsonRevision.incrementAndGet();
+        if (previewIndicator != null) {
+            previewIndicator.cancel();
+        }
+        previewExecutor.shutdown();
+        super.dispose();
+    }
+
+    private void onOK() {
+        onOkListener.onOk(className.getText(), fromFile ? null : jsonText.getText(), getOptions());
+        dispose();
+    }
+
+    /**
+     * 根据对话框中的选择创建生成选项。
+     *
+     * @return 生成选项
+     */
+    private GenerateOptions getOptions() {
+        ArraySampling.Strategy strategy = (ArraySampling.Strategy)samplingStrategy.getSelectedItem();
+        ArraySampling sampling = strategy == null || strategy == ArraySampling.Strategy.ALL ? ArraySampling.ALL :
+            new ArraySampling(strategy, (Integer)sampleSize.getValue());
+
+        return new GenerateOptions()
+            .withGenerateBuilders(generateBuilders.isSelected())
+            .withUseMPrefix(useMPrefix.isSelected())
+            .withTarget((GenerateOptions.Target)target.getSelectedItem())
+            .withGenerateTypeAdapters(generateTypeAdapters.isSelected())
+            .withPrimitiveArrays(primitiveArrays.isSelected())
+            .withNarrowNumbers(narrowNumbers.isSelected())
+            .withStringEnums(stringEnums.isSelected())
+            .withImmutable(immutable.isSelected())
+            .withArraySampling(sampling);
+    }
+
+    /**
+     * 验证类名，类名有效且 JSON 文本已通过校验时启用 "确定 "按钮。
+     */
+    private void updateOkButton() {
+        buttonOk.setEnabled(CLASS_NAME_PATTERN.matcher(className.getText()).matches() && (fromFile || jsonValid));
+    }
+
+    /**
+     * JSON 文本变化时使在途的校验过期，并在输入停止后重新校验。
+     */
+    private void onJsonChanged() {
+        jsonRevision.incrementAndGet();
+        jsonValid = false;
+        updateOkButton();
+        validationTimer.restart();
+        previewTimer.restart();
+    }
+
+    /**
+     * 在后台线程中校验当前的 JSON 文本，完成后回到事件分派线程显示结果。
+     */
+    private void validateJson() {
+        int revision = jsonRevision.get();
+        Document document = jsonText.getDocument();
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            JsonError error;
+            try {
+                error = checkWellFormed(document, revision);
+            } catch (CancellationException e) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> showValidation(revision, error));
+        });
+    }
+
+    /**
+     * 流式检查 JSON 文本是否只包含一个格式良好的值，在文档的读锁下按块读取内容而不复制整个文本。
+     *
+     * @param document JSON 文本所在的文档
+     * @param revision 开始校验时的修改次数
+     * @return 发现的错误，格式良好时为 null
+     * @throws CancellationException 校验期间文本又被修改
+     */
+    private JsonError checkWellFormed(Document document, int revision) {
+        try (JsonParser parser = JSON_FACTORY.createParser(new DocumentChunkReader(document, revision))) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return JsonError.EMPTY;
+            }
+
+            // 读完根值，每读取一块文本都会检查是否已有更新的输入
+            int depth = 0;
+            while (true) {
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    break;
+                }
+                token = parser.nextToken();
+                if (token == null) {
+                    return new JsonError("Unexpected end of input", parser.getCurrentLocation());
+                }
+            }
+
+            if (parser.nextToken() != null) {
+                return new JsonError("Unexpected content after the root value", parser.getTokenLocation());
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            return new JsonError(e.getOriginalMessage(), e.getLocation());
+        } catch (CancellationException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            return new JsonError(e.toString(), null);
+        }
+    }
+
+    /**
+     * 显示校验结果：标记出错行并在提示中显示错误。结果已过期时忽略。
+     *
+     * @param revision 校验的文本对应的修改次数
+     * @param error    发现的错误，格式良好时为 null
+     */
+    private void showValidation(int revision, JsonError error) {
+        if (revision != jsonRevision.get()) {
+            return;
+        }
+
+        jsonValid = error == null;
+        jsonText.removeAllLineHighlights();
+        jsonText.setToolTipText(error == null ? null : error.message);
+        if (error != null && error.line >= 0) {
+            try {
+                jsonText.addLineHighlight(error.line, ERROR_HIGHLIGHT);
+            } catch (BadLocationException ignored) {
+            }
+        }
+        updateOkButton();
+    }
+
+    /**
+     * 按当前的采样选项重新开始增量推断，并刷新预览。
+     */
+    private void resetPreviewInference() {
+        ArraySampling sampling = getOptions().getArraySampling();
+        previewExecutor.execute(() -> previewInference = new PreviewInference(sampling));
+        previewTimer.restart();
+    }
+
+    /**
+     * 在预览执行器中推断并渲染当前的 JSON 文本，完成后回到事件分派线程显示生成的类。
+     * 开始新的预览时取消上一次，过期的结果会被丢弃；JSON 无效时保留上一次的预览。
+     */
+    private void updatePreview() {
+        if (fromFile || !isDisplayable()) {
+            return;
+        }
+        int revision = jsonRevision.get();
+        PreviewInference.Source source = new DocumentSource(jsonText.getDocument(), revision);
+        String rootName =
+            CLASS_NAME_PATTERN.matcher(className.getText()).matches() ? className.getText() : PREVIEW_ROOT_NAME;
+        GenerateOptions options = getOptions();
+
+        ProgressIndicator indicator = new EmptyProgressIndicator();
+        if (previewIndicator != null) {
+            previewIndicator.cancel();
+        }
+        previewIndicator = indicator;
+
+        previewExecutor.execute(() -> {
+            String preview;
+            try {
+                preview = renderPreview(source, rootName, options, indicator);
+            } catch (Exception e) {
+                // 已被更新的预览取消，或 JSON 无效
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (revision == jsonRevision.get() && indicator == previewIndicator) {
+                    previewText.setText(preview);
+                    previewText.setCaretPosition(0);
+                }
+            });
+        });
+    }
+
+    /**
+     * 在内存中生成并渲染预览，只重新推断自上次预览以来被编辑的成员。
+     *
+     * @param source    JSON 文本
+     * @param rootName  根类名
+     * @param options   生成选项
+     * @param indicator 预览的进度，被取消时中止
+     * @return 所有生成的类的源码
+     * @throws Exception 推断或生成失败
+     */
+    private String renderPreview(PreviewInference.Source source, String rootName, GenerateOptions options,
+                                 ProgressIndicator indicator) throws Exception {
+        JsonShape shape = previewInference.infer(source, indicator::checkCanceled);
+        JCodeModel model = new GenerateObject("", new IndicatorProgress(indicator)).generateModel(shape, rootName, options);
+        GeneratedSources sources = new GeneratedSources(indicator::checkCanceled);
+        model.build(sources);
+
+        StringBuilder preview = new StringBuilder();
+        for (byte[] content : sources.getFiles().values()) {
+            preview.append(new String(content, StandardCharsets.UTF_8)).append('\n');
+        }
+        return preview.toString();
+    }
+
+    /**
+     * JSON 文本中的一个错误。
+     */
+    private static class JsonError {
+        /**
+         * 文本为空，不需要标记
+         */
+        static final JsonError EMPTY = new JsonError(null, null);
+
+        final String message;
+        /**
+         * 从 0 开始的出错行号，未知时为 -1
+         */
+        final int line;
+
+        JsonError(String message, JsonLocation location) {
+            this.message = message;
+            this.line = location == null || location.getLineNr() < 1 ? -1 : location.getLineNr() - 1;
+        }
+    }
+
+    /**
+     * 在预览执行器中直接从文档读取 JSON 文本，只复制推断需要的片段。每次读取都持有文档的读锁，
+     * 并检查文本在预览开始后是否又被修改，使读到的内容与已记录的编辑一致。
+     */
+    private class DocumentSource implements PreviewInference.Source {
+        private final Document document;
+        /**
+         * 开始预览时的修改次数
+         */
+        private final int revision;
+
+        DocumentSource(Document document, int revision) {
+            this.document = document;
+            this.revision = revision;
+        }
+
+        @Override
+        public int length() {
+            int[] length = {-1};
+            document.render(() -> {
+                if (revision == jsonRevision.get()) {
+                    length[0] = document.getLength();
+                }
+            });
+            if (length[0] < 0) {
+                throw new CancellationException();
+            }
+            return length[0];
+        }
+
+        @Override
+        public String read(int from, int to) {
+            String[] text = new String[1];
+            document.render(() -> {
+                if (revision == jsonRevision.get()) {
+                    try {
+                        text[0] = document.getText(from, to - from);
+                    } catch (BadLocationException ignored) {
+                    }
+                }
+            });
+            if (text[0] == null) {
+                throw new CancellationException();
+            }
+            return text[0];
+        }
+    }
+
+    /**
+     * 在后台线程中按块读取文档的 Reader。与 {@link DocumentSource} 一样，每次读取都持有文档的读锁，
+     * 文本在校验开始后又被修改时抛出 {@link CancellationException}。
+     */
+    private class DocumentChunkReader extends Reader {
+        private final Document document;
+        /**
+         * 开始校验时的修改次数
+         */
+        private final int revision;
+        private final Segment segment = new Segment();
+        /**
+         * 下一次读取的位置
+         */
+        private int position;
+
+        DocumentChunkReader(Document document, int revision) {
+            this.document = document;
+            this.revision = revision;
+            // 允许文档直接返回内部数组中的一段，不必复制
+            segment.setPartialReturn(true);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            // -2 表示文本已被修改
+            int[] read = {-2};
+            document.render(() -> {
+                if (revision != jsonRevision.get()) {
+                    return;
+                }
+                int count = Math.min(length, document.getLength() - position);
+                if (count <= 0) {
+                    read[0] = -1;
+                    return;
+                }
+                try {
+                    document.getText(position, count, segment);
+                } catch (BadLocationException ignored) {
+                    return;
+                }
+                System.arraycopy(segment.array, segment.offset, buffer, offset, segment.count);
+                read[0] = segment.count;
+            });
+            if (read[0] == -2) {
+                throw new CancellationException();
+            }
+            if (read[0] > 0) {
+                position += read[0];
+            }
+            return read[0];
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 将 JSON 文本的每次编辑按顺序交给预览执行器记录，使缓存的成员与文本保持一致。
+     */
+    private class PreviewEditListener implements DocumentListener {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            int offset = e.getOffset();
+            int length = e.getLength();
+            previewExecutor.execute(() -> previewInference.edit(offset, length, 0));
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            int offset = e.getOffset();
+            int length = e.getLength();
+            previewExecutor.execute(() -> previewInference.edit(offset, 0, length));
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+        }
+    }
+
+    /**
+     * 当 JSON 文本或根类文本发生变化时被调用。
+     *
+     * @author hgy
+     * @since 2023-12-24 18:35:07
+     */
+    private static class TextChangedListener implements DocumentListener {
+        private final Runnable onChange;
+
+        TextChangedListener(Runnable onChange) {
+            this.onChange = onChange;
+        }
+
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            onChange.run();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            onChange.run();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            onChange.run();
+        }
+    }
+}
@@ -1,16 +1,12 @@
-package com.hgy.plugin.j2o;
+package com.hgy.plugin.j2o.idea;
 
-import com.intellij.ide.projectView.ProjectView;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.LangDataKeys;
-import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
-import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.vfs.VirtualFile;
-import org.jetbrains.annotations.NotNull;
 
 /**
  * 生成java类的对话框的action
@@ -27,31 +23,12 @@ public class PopupAction extends AnAction {
         if (!hasDir(project, actionFolder)) {
             return;
         }
-        // 获取模块源根和有效软件包名称
-        VirtualFile moduleSourceRoot =
-            ProjectRootManager.getInstance(project).getFileIndex().getSourceRootForFile(actionFolder);
-        String packageName =
-            ProjectRootManager.getInstance(project).getFileIndex().getPackageNameByDirectory(actionFolder);
 
         // 显示 JSON 对话框
-        JsonEntryDialog dialog = new JsonEntryDialog((className, jsonText, generateBuilders, useMPrefix) -> {
+        JsonEntryDialog dialog = new JsonEntryDialog((className, jsonText, options) -> {
             // 显示后台进程指示器
-            ProgressManager.getInstance().run(new Task.Backgroundable(project, "JSON2Object Class Generation", false) {
-                @Override
-                public void run(@NotNull ProgressIndicator indicator) {
-                    // 生成类
-                    GenerateObject generateObject = new GenerateObject(packageName, moduleSourceRoot, indicator);
-                    generateObject.generateFromJson(className, jsonText, generateBuilders, useMPrefix);
-
-                    // 刷新用户界面
-                    try {
-                        Thread.sleep(100);
-                        ProjectView.getInstance(project).refresh();
-                        actionFolder.refresh(false, true);
-                    } catch (InterruptedException ignored) {
-                    }
-                }
-            });
+            ProgressManager.getInstance().run(new GenerateTask(project, actionFolder,
+                generateObject -> generateObject.generateFromJson(className, jsonText, options)));
         });
         dialog.setLocationRelativeTo(null);
         dialog.pack();